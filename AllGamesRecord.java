@@ -1,52 +1,212 @@
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Collects game results in primitive columns: one int[] of scores, one of guess counts
+ * and one of interned player ordinals. GameRecord objects are only created as views when a
+ * caller asks for them, so millions of results cost a few bytes each.
+ */
 public class AllGamesRecord {
-    private List<GameRecord> records;
+    private static final int DEFAULT_TOP_CAPACITY = 10;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] scores;
+    private int[] guessCounts;
+    private int[] playerOrdinals;
+    private int size;
+    private long totalScore;
+    private List<String> playerIds;
+    private Map<String, Integer> ordinalsById;
+    private List<PlayerStats> playerStats;
+    private HighScores highScores;
+    private int topCapacity;
 
     public AllGamesRecord() {
-        records = new ArrayList<>();
+        this(DEFAULT_TOP_CAPACITY);
+    }
+
+    // topCapacity is how many high games are kept ready per player; larger requests fall back to sorting
+    public AllGamesRecord(int topCapacity) {
+        this.scores = new int[INITIAL_CAPACITY];
+        this.guessCounts = new int[INITIAL_CAPACITY];
+        this.playerOrdinals = new int[INITIAL_CAPACITY];
+        this.playerIds = new ArrayList<>();
+        this.ordinalsById = new HashMap<>();
+        this.playerStats = new ArrayList<>();
+        this.topCapacity = topCapacity;
+        this.highScores = new HighScores();
     }
 
     public void add(GameRecord record) {
-        records.add(record);
+        add(record.getScore(), record.getPlayerId(), record.getGuessCount());
     }
 
-    public double average() {
-        int totalScore = 0;
-        for (GameRecord record : records) {
-            totalScore += record.getScore();
+    public void add(int score, String playerId) {
+        add(score, playerId, 0);
+    }
+
+    public void add(int score, String playerId, int guessCount) {
+        Integer ordinal = ordinalsById.get(playerId);
+        if (ordinal == null) {
+            ordinal = playerIds.size();
+            ordinalsById.put(playerId, ordinal);
+            playerIds.add(playerId);
+            playerStats.add(new PlayerStats());
         }
-        return records.isEmpty() ? 0.0 : (double) totalScore / records.size();
+        if (size == scores.length) {
+            scores = Arrays.copyOf(scores, size * 2);
+            guessCounts = Arrays.copyOf(guessCounts, size * 2);
+            playerOrdinals = Arrays.copyOf(playerOrdinals, size * 2);
+        }
+        int index = size++;
+        scores[index] = score;
+        guessCounts[index] = guessCount;
+        playerOrdinals[index] = ordinal;
+        totalScore += score;
+        highScores.offer(index);
+        playerStats.get(ordinal).add(index);
+    }
+
+    public void addAll(AllGamesRecord other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.scores[i], other.playerIds.get(other.playerOrdinals[i]), other.guessCounts[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Creates a view of the record at the given insertion index
+    public GameRecord get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return new GameRecord(scores[index], playerIds.get(playerOrdinals[index]), guessCounts[index]);
+    }
+
+    public long totalScore() {
+        return totalScore;
+    }
+
+    // Number of games recorded for a player, 0 if none
+    public int size(String playerId) {
+        Integer ordinal = ordinalsById.get(playerId);
+        return ordinal == null ? 0 : playerStats.get(ordinal).count;
+    }
+
+    public long totalScore(String playerId) {
+        Integer ordinal = ordinalsById.get(playerId);
+        return ordinal == null ? 0 : playerStats.get(ordinal).totalScore;
+    }
+
+    public double average() {
+        return size == 0 ? 0.0 : (double) totalScore / size;
     }
 
     public double average(String playerId) {
-        int totalScore = 0;
-        int count = 0;
-        for (GameRecord record : records) {
-            if (record.getPlayerId().equals(playerId)) {
-                totalScore += record.getScore();
-                count++;
-            }
+        Integer ordinal = ordinalsById.get(playerId);
+        if (ordinal == null) {
+            return 0.0;
         }
-        return count == 0 ? 0.0 : (double) totalScore / count;
+        PlayerStats stats = playerStats.get(ordinal);
+        return (double) stats.totalScore / stats.count;
     }
 
     public List<GameRecord> highGameList(int n) {
-        List<GameRecord> sortedRecords = new ArrayList<>(records);
-        sortedRecords.sort(Collections.reverseOrder());
-        return sortedRecords.subList(0, Math.min(n, sortedRecords.size()));
+        if (n <= topCapacity) {
+            return highScores.top(n);
+        }
+        int[] indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = i;
+        }
+        return sortedHighGames(indexes, size, n);
     }
 
     public List<GameRecord> highGameList(String playerId, int n) {
-        List<GameRecord> playerRecords = new ArrayList<>();
-        for (GameRecord record : records) {
-            if (record.getPlayerId().equals(playerId)) {
-                playerRecords.add(record);
+        Integer ordinal = ordinalsById.get(playerId);
+        if (ordinal == null) {
+            return new ArrayList<>();
+        }
+        PlayerStats stats = playerStats.get(ordinal);
+        if (n <= topCapacity) {
+            return stats.highScores.top(n);
+        }
+        return sortedHighGames(stats.indexes, stats.count, n);
+    }
+
+    // Fallback for requests deeper than the maintained high score lists
+    private List<GameRecord> sortedHighGames(int[] indexes, int count, int n) {
+        List<Integer> sorted = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sorted.add(indexes[i]);
+        }
+        // List.sort is stable, so equal scores keep their insertion order
+        sorted.sort((a, b) -> Integer.compare(scores[b], scores[a]));
+        List<GameRecord> top = new ArrayList<>();
+        for (int i = 0; i < Math.min(n, count); i++) {
+            top.add(get(sorted.get(i)));
+        }
+        return top;
+    }
+
+    // Running totals and record indexes for a single player
+    private class PlayerStats {
+        private int[] indexes = new int[INITIAL_CAPACITY];
+        private int count;
+        private long totalScore;
+        private HighScores highScores = new HighScores();
+
+        void add(int index) {
+            if (count == indexes.length) {
+                indexes = Arrays.copyOf(indexes, count * 2);
+            }
+            indexes[count++] = index;
+            totalScore += scores[index];
+            highScores.offer(index);
+        }
+    }
+
+    /**
+     * Bounded list of the best record indexes, kept sorted from highest to lowest score.
+     * Equal scores keep their insertion order, matching a stable reverse sort.
+     */
+    private class HighScores {
+        private int[] best = new int[topCapacity];
+        private int count;
+
+        void offer(int index) {
+            // Binary search for the first slot holding a strictly lower score
+            int score = scores[index];
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (scores[best[mid]] >= score) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (low >= best.length) {
+                return;
+            }
+            int moved = Math.min(count, best.length - 1) - low;
+            System.arraycopy(best, low, best, low + 1, moved);
+            best[low] = index;
+            count = Math.min(count + 1, best.length);
+        }
+
+        List<GameRecord> top(int n) {
+            List<GameRecord> top = new ArrayList<>();
+            for (int i = 0; i < Math.min(n, count); i++) {
+                top.add(get(best[i]));
             }
+            return top;
         }
-        playerRecords.sort(Collections.reverseOrder());
-        return playerRecords.subList(0, Math.min(n, playerRecords.size()));
     }
 }
@@ -0,0 +1,111 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Hands game messages to a background thread that writes them through a buffer,
+ * so verbose runs do not block game threads on console output. Messages from all
+ * threads are written in the order they were queued. The queue is bounded: when the
+ * writer falls behind, game threads wait for room instead of growing the heap.
+ * Call close() to flush; the listener must not be used after that.
+ */
+public class AsyncGameListener implements GameListener, AutoCloseable {
+    private static final String END = new String("end of messages");
+    private static final int BATCH_SIZE = 1024;
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final BlockingQueue<String> queue;
+    private final Writer writer;
+    private final Thread writerThread;
+
+    /**
+     * Creates a listener that writes to the console.
+     */
+    public AsyncGameListener() {
+        this(System.out);
+    }
+
+    /**
+     * Creates a listener that writes to the given stream.
+     *
+     * @param out the stream receiving the messages, one per line.
+     */
+    public AsyncGameListener(OutputStream out) {
+        this(out, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a listener that writes to the given stream, queueing at most a given
+     * number of messages.
+     *
+     * @param out the stream receiving the messages, one per line.
+     * @param capacity how many messages may wait for the writer before game threads block.
+     */
+    public AsyncGameListener(OutputStream out, int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new BufferedWriter(new OutputStreamWriter(out), 1 << 16);
+        this.writerThread = new Thread(this::drain, "game-listener-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void message(String text) {
+        try {
+            queue.put(text);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // The message is dropped, the game goes on
+        }
+    }
+
+    // Writes queued messages in batches, flushing whenever the queue runs dry
+    private void drain() {
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                for (String text : batch) {
+                    if (text == END) {
+                        writer.flush();
+                        return;
+                    }
+                    writer.write(text);
+                    writer.write(System.lineSeparator());
+                }
+                batch.clear();
+                if (queue.isEmpty()) {
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing game messages: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes every message queued so far and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        try {
+            queue.put(END);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replaces files whole, for the snapshot and cache files other launches read. The
+ * contents go to "<file>.tmp" first, which is then moved over the file in one atomic
+ * step, so a reader sees either the old file or the new one, never a partial write.
+ */
+public final class AtomicFiles {
+    private AtomicFiles() {
+    }
+
+    /**
+     * Replaces a file with the remaining bytes of a buffer.
+     *
+     * @param file the file to replace or create.
+     * @param contents the bytes to write, from its position to its limit; it is consumed.
+     * @throws IOException if the temporary file cannot be written or moved.
+     */
+    public static void write(Path file, ByteBuffer contents) throws IOException {
+        Path temporary = Paths.get(file + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (contents.hasRemaining()) {
+                channel.write(contents);
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
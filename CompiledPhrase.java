@@ -0,0 +1,112 @@
+/**
+ * A phrase compiled for guessing: a 26-bit mask of the lowercase letters it contains, and
+ * the positions of each letter, all in one int[] sliced by per-letter offsets. A miss is a
+ * single mask test and a hit only touches the positions of the guessed letter, so a game
+ * no longer scans the phrase on every guess. Instances are immutable and can be shared by
+ * any number of concurrent games.
+ */
+public class CompiledPhrase {
+    private static final int LETTERS = 26;
+
+    private final String text;
+    private final int letterMask;
+    // Positions of letter l are positions[letterStarts[l]..letterStarts[l + 1])
+    private final int[] letterStarts;
+    private final int[] positions;
+    private final long hash;
+
+    private CompiledPhrase(String text, int letterMask, int[] letterStarts, int[] positions, long hash) {
+        this.text = text;
+        this.letterMask = letterMask;
+        this.letterStarts = letterStarts;
+        this.positions = positions;
+        this.hash = hash;
+    }
+
+    /**
+     * Compiles a phrase with two passes over it: one counting each letter, one placing positions.
+     *
+     * @param phrase the phrase to compile.
+     * @return the compiled phrase.
+     */
+    public static CompiledPhrase compile(String phrase) {
+        int[] letterStarts = new int[LETTERS + 1];
+        int mask = 0;
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < phrase.length(); i++) {
+            hash = (hash ^ phrase.charAt(i)) * 0x100000001B3L;
+            int letter = phrase.charAt(i) - 'a';
+            if (letter >= 0 && letter < LETTERS) {
+                letterStarts[letter + 1]++;
+                mask |= 1 << letter;
+            }
+        }
+        for (int letter = 0; letter < LETTERS; letter++) {
+            letterStarts[letter + 1] += letterStarts[letter];
+        }
+        int[] positions = new int[letterStarts[LETTERS]];
+        int[] next = new int[LETTERS];
+        System.arraycopy(letterStarts, 0, next, 0, LETTERS);
+        for (int i = 0; i < phrase.length(); i++) {
+            int letter = phrase.charAt(i) - 'a';
+            if (letter >= 0 && letter < LETTERS) {
+                positions[next[letter]++] = i;
+            }
+        }
+        return new CompiledPhrase(phrase, mask, letterStarts, positions, hash);
+    }
+
+    public String text() {
+        return text;
+    }
+
+    // 64-bit FNV-1a hash of the text, e.g. for keying cached results
+    public long hash() {
+        return hash;
+    }
+
+    public int length() {
+        return text.length();
+    }
+
+    // Mask of the lowercase letters the phrase contains, as built by WheelOfFortune.letterMask
+    public int letterMask() {
+        return letterMask;
+    }
+
+    public boolean contains(char guess) {
+        return guess >= 'a' && guess <= 'z' && (letterMask & (1 << (guess - 'a'))) != 0;
+    }
+
+    // A fresh board as WheelOfFortune.getHiddenPhrase draws it: every letter shown as '*',
+    // including ones no guess can reveal, such as capitals
+    public StringBuilder hiddenPhrase() {
+        StringBuilder hidden = new StringBuilder(text);
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLetter(text.charAt(i))) {
+                hidden.setCharAt(i, '*');
+            }
+        }
+        return hidden;
+    }
+
+    /**
+     * Reveals a guessed letter on a board, touching only the positions where it occurs.
+     *
+     * @param guess the guessed letter; anything outside 'a' to 'z' never matches.
+     * @param hiddenPhrase the board to update, as long as the phrase.
+     * @return the number of positions revealed, 0 for a miss.
+     */
+    public int reveal(char guess, StringBuilder hiddenPhrase) {
+        if (!contains(guess)) {
+            return 0;
+        }
+        int letter = guess - 'a';
+        int from = letterStarts[letter];
+        int to = letterStarts[letter + 1];
+        for (int i = from; i < to; i++) {
+            hiddenPhrase.setCharAt(positions[i], guess);
+        }
+        return to - from;
+    }
+}
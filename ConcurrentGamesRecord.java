@@ -0,0 +1,135 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A thread-safe AllGamesRecord for many producer threads. Each thread adds to a stripe of
+ * its own, an AllGamesRecord that only that thread writes, so producers never wait on
+ * each other; the stripe's lock is only ever contended by a reader. Readers visit the
+ * stripes one at a time and merge what they find.
+ *
+ * Every read sees each stripe as it was at some moment during the call, and every record
+ * whose add() returned before the read began. Records that never appear in the same
+ * stripe have no defined order between them.
+ */
+public class ConcurrentGamesRecord {
+    private static final int DEFAULT_TOP_CAPACITY = 10;
+
+    private final int topCapacity;
+    private final List<AllGamesRecord> stripes = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<AllGamesRecord> localStripe = ThreadLocal.withInitial(this::newStripe);
+
+    public ConcurrentGamesRecord() {
+        this(DEFAULT_TOP_CAPACITY);
+    }
+
+    // topCapacity is how many high games each stripe keeps ready per player
+    public ConcurrentGamesRecord(int topCapacity) {
+        this.topCapacity = topCapacity;
+    }
+
+    private AllGamesRecord newStripe() {
+        AllGamesRecord stripe = new AllGamesRecord(topCapacity);
+        stripes.add(stripe);
+        return stripe;
+    }
+
+    public void add(GameRecord record) {
+        add(record.getScore(), record.getPlayerId(), record.getGuessCount());
+    }
+
+    public void add(int score, String playerId) {
+        add(score, playerId, 0);
+    }
+
+    public void add(int score, String playerId, int guessCount) {
+        AllGamesRecord stripe = localStripe.get();
+        synchronized (stripe) {
+            stripe.add(score, playerId, guessCount);
+        }
+    }
+
+    // Adds a whole batch under one lock acquisition, e.g. the results of a finished task
+    public void addAll(AllGamesRecord records) {
+        AllGamesRecord stripe = localStripe.get();
+        synchronized (stripe) {
+            stripe.addAll(records);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (AllGamesRecord stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public double average() {
+        long total = 0;
+        long count = 0;
+        for (AllGamesRecord stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.totalScore();
+                count += stripe.size();
+            }
+        }
+        return count == 0 ? 0.0 : (double) total / count;
+    }
+
+    public double average(String playerId) {
+        long total = 0;
+        long count = 0;
+        for (AllGamesRecord stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.totalScore(playerId);
+                count += stripe.size(playerId);
+            }
+        }
+        return count == 0 ? 0.0 : (double) total / count;
+    }
+
+    // The best n games overall are among the best n of each stripe
+    public List<GameRecord> highGameList(int n) {
+        List<GameRecord> candidates = new ArrayList<>();
+        for (AllGamesRecord stripe : stripes) {
+            synchronized (stripe) {
+                candidates.addAll(stripe.highGameList(n));
+            }
+        }
+        return top(candidates, n);
+    }
+
+    public List<GameRecord> highGameList(String playerId, int n) {
+        List<GameRecord> candidates = new ArrayList<>();
+        for (AllGamesRecord stripe : stripes) {
+            synchronized (stripe) {
+                candidates.addAll(stripe.highGameList(playerId, n));
+            }
+        }
+        return top(candidates, n);
+    }
+
+    // List.sort is stable, so equal scores stay in stripe order
+    private static List<GameRecord> top(List<GameRecord> candidates, int n) {
+        candidates.sort((a, b) -> Integer.compare(b.getScore(), a.getScore()));
+        return new ArrayList<>(candidates.subList(0, Math.min(n, candidates.size())));
+    }
+
+    /**
+     * Copies every record into a single AllGamesRecord, stripe by stripe.
+     *
+     * @return a new record owned by the caller.
+     */
+    public AllGamesRecord snapshot() {
+        AllGamesRecord snapshot = new AllGamesRecord(topCapacity);
+        for (AllGamesRecord stripe : stripes) {
+            synchronized (stripe) {
+                snapshot.addAll(stripe);
+            }
+        }
+        return snapshot;
+    }
+}
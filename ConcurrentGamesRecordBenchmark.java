@@ -0,0 +1,70 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Ingestion throughput of ConcurrentGamesRecord against one AllGamesRecord behind a
+ * synchronized block, for 1 to 64 producer threads. Every configuration adds the same
+ * total number of records, split evenly over the threads.
+ */
+public class ConcurrentGamesRecordBenchmark {
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+    private static final String[] PLAYER_IDS = {"DumbGuesser", "SmartGuesser", "SmarterGuesser", "FrequencyGuesser"};
+
+    public static void main(String[] args) throws InterruptedException {
+        int totalRecords = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        System.out.println("Processors: " + Runtime.getRuntime().availableProcessors() + ", records per run: " + totalRecords);
+
+        // One untimed round of each so both are measured after JIT compilation
+        measureConcurrent(4, totalRecords);
+        measureSynchronized(4, totalRecords);
+
+        System.out.printf("%8s %20s %20s%n", "threads", "striped Mrec/s", "synchronized Mrec/s");
+        for (int threads : THREAD_COUNTS) {
+            double striped = measureConcurrent(threads, totalRecords);
+            double locked = measureSynchronized(threads, totalRecords);
+            System.out.printf("%8d %20.1f %20.1f%n", threads, striped, locked);
+        }
+    }
+
+    private static double measureConcurrent(int threads, int totalRecords) throws InterruptedException {
+        ConcurrentGamesRecord record = new ConcurrentGamesRecord();
+        return measure(threads, totalRecords, (playerId, score) -> record.add(score, playerId));
+    }
+
+    private static double measureSynchronized(int threads, int totalRecords) throws InterruptedException {
+        AllGamesRecord record = new AllGamesRecord();
+        return measure(threads, totalRecords, (playerId, score) -> {
+            synchronized (record) {
+                record.add(score, playerId);
+            }
+        });
+    }
+
+    // Millions of records added per second across all threads
+    private static double measure(int threads, int totalRecords, ObjIntConsumer<String> add) throws InterruptedException {
+        int perThread = totalRecords / threads;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] producers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            producers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    add.accept(PLAYER_IDS[(thread + i) & 3], i % 101);
+                }
+            });
+            producers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        return (double) perThread * threads / seconds / 1e6;
+    }
+}
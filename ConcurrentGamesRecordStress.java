@@ -0,0 +1,116 @@
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stress check for ConcurrentGamesRecord: producer threads add a known set of records
+ * while a reader keeps calling size(), average() and highGameList(), then every count,
+ * total and high score is compared with what was added. Exits with status 1 on failure.
+ */
+public class ConcurrentGamesRecordStress {
+    private static final int PLAYERS = 8;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        ConcurrentGamesRecord record = new ConcurrentGamesRecord();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean producing = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread[] producers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            producers[t] = new Thread(() -> {
+                await(start);
+                String playerId = "player" + (thread % PLAYERS);
+                for (int i = 0; i < perThread; i++) {
+                    // Scores 0..999, plus one unique high score per thread halfway through
+                    record.add(i == perThread / 2 ? 100_000 + thread : i % 1000, playerId);
+                }
+            });
+            producers[t].start();
+        }
+
+        // The reader checks invariants that must hold at any moment
+        Thread reader = new Thread(() -> {
+            await(start);
+            int lastSize = 0;
+            long reads = 0;
+            while (producing.get()) {
+                int size = record.size();
+                double average = record.average();
+                List<GameRecord> high = record.highGameList(5);
+                if (size < lastSize) {
+                    failure.compareAndSet(null, "size went down from " + lastSize + " to " + size);
+                }
+                if (average < 0 || average > 100_000 + threads) {
+                    failure.compareAndSet(null, "average out of range: " + average);
+                }
+                for (int i = 1; i < high.size(); i++) {
+                    if (high.get(i).getScore() > high.get(i - 1).getScore()) {
+                        failure.compareAndSet(null, "high games out of order: " + high);
+                    }
+                }
+                lastSize = size;
+                reads++;
+            }
+            System.out.println("Reader made " + reads + " passes");
+        });
+        reader.start();
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        producing.set(false);
+        reader.join();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        long expectedSize = (long) threads * perThread;
+        check(failure, record.size() == expectedSize, "size " + record.size() + ", expected " + expectedSize);
+
+        long expectedTotal = 0;
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < perThread; i++) {
+                expectedTotal += i == perThread / 2 ? 100_000 + t : i % 1000;
+            }
+        }
+        AllGamesRecord snapshot = record.snapshot();
+        check(failure, snapshot.totalScore() == expectedTotal, "total " + snapshot.totalScore() + ", expected " + expectedTotal);
+
+        for (int p = 0; p < Math.min(PLAYERS, threads); p++) {
+            int producersOfPlayer = (threads - p + PLAYERS - 1) / PLAYERS;
+            int count = snapshot.size("player" + p);
+            check(failure, count == producersOfPlayer * perThread, "player" + p + " has " + count + " games");
+        }
+
+        List<GameRecord> high = record.highGameList(threads);
+        for (int i = 0; i < high.size(); i++) {
+            check(failure, high.get(i).getScore() == 100_000 + threads - 1 - i, "high game " + i + " is " + high.get(i));
+        }
+
+        if (failure.get() != null) {
+            System.out.println("FAILED: " + failure.get());
+            System.exit(1);
+        }
+        System.out.printf("OK: %d threads added %d records in %.2f s, none lost%n", threads, expectedSize, seconds);
+    }
+
+    private static void check(AtomicReference<String> failure, boolean condition, String message) {
+        if (!condition) {
+            failure.compareAndSet(null, message);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
+/**
+ * A fast Mastermind code-breaker that always guesses the lowest code still consistent
+ * with every feedback so far. Because it is deterministic, games with the same feedback
+ * history make the same guesses, so the candidate sets live in a shared decision tree
+ * that is built lazily and can be used by solvers on many threads at once. Playing every
+ * secret then costs about one pass over the code space per tree level, rather than one
+ * pass per game. The top levels, whose nodes hold most of the code space, should be
+ * built up front with expandTree, which splits them over a fork-join pool; otherwise the
+ * first thread to reach a node partitions it alone while the others wait.
+ */
+public class ConsistentGuessSolver implements MastermindPlayer {
+    private final DecisionNode root;
+    private DecisionNode current;
+
+    /**
+     * Creates a solver with its own decision tree.
+     *
+     * @param codes the code space to play in.
+     */
+    public ConsistentGuessSolver(MastermindCodes codes) {
+        this(newTree(codes));
+    }
+
+    /**
+     * Creates a solver sharing a decision tree made by newTree.
+     *
+     * @param tree the root of the shared decision tree.
+     */
+    public ConsistentGuessSolver(DecisionNode tree) {
+        this.root = tree;
+        this.current = tree;
+    }
+
+    /**
+     * Creates the root of a decision tree: every code is a candidate and the opening
+     * guess fills the first half of the positions with one color and the rest with a second.
+     *
+     * @param codes the code space to play in.
+     * @return the root node.
+     */
+    public static DecisionNode newTree(MastermindCodes codes) {
+        int guess = 0;
+        int secondColor = Math.min(1, codes.colorCount() - 1);
+        for (int position = codes.codeLength() - 1; position >= 0; position--) {
+            int color = position < codes.codeLength() / 2 ? 0 : secondColor;
+            guess = guess * codes.colorCount() + color;
+        }
+        int[] allCodes = new int[codes.size()];
+        for (int code = 0; code < allCodes.length; code++) {
+            allCodes[code] = code;
+        }
+        return new DecisionNode(codes, guess, allCodes);
+    }
+
+    /**
+     * Builds the top levels of a decision tree in parallel on the fork-join pool this is
+     * called from, partitioning each large node in chunks and expanding sibling nodes at
+     * the same time. Nodes below are still built lazily, and are small.
+     *
+     * @param tree the root of the tree.
+     * @param levels how many levels of nodes get their children built; 0 builds nothing.
+     */
+    public static void expandTree(DecisionNode tree, int levels) {
+        if (levels == 0) {
+            return;
+        }
+        List<ForkJoinTask<?>> subtrees = new ArrayList<>();
+        for (DecisionNode child : tree.buildChildren(true)) {
+            if (child != null) {
+                subtrees.add(ForkJoinTask.adapt(() -> expandTree(child, levels - 1)));
+            }
+        }
+        ForkJoinTask.invokeAll(subtrees);
+    }
+
+    @Override
+    public int nextGuess() {
+        return current.guess;
+    }
+
+    @Override
+    public void feedback(int guess, int feedback) {
+        current = current.child(feedback);
+    }
+
+    @Override
+    public String playerId() {
+        return "ConsistentGuessSolver";
+    }
+
+    @Override
+    public void reset() {
+        current = root;
+    }
+
+    /**
+     * One guess in the shared decision tree, with the codes still possible when it is made.
+     * Children are created for all feedback values in one pass the first time any is needed.
+     */
+    public static class DecisionNode {
+        // Candidates per chunk when a node is partitioned in parallel
+        private static final int PARTITION_CHUNK = 8192;
+
+        private final MastermindCodes codes;
+        private final int guess;
+        private int[] candidates;
+        private volatile DecisionNode[] children;
+
+        DecisionNode(MastermindCodes codes, int guess, int[] candidates) {
+            this.codes = codes;
+            this.guess = guess;
+            this.candidates = candidates;
+        }
+
+        DecisionNode child(int feedback) {
+            DecisionNode[] built = children;
+            if (built == null) {
+                built = buildChildren(false);
+            }
+            return built[feedback];
+        }
+
+        // In parallel, chunks of candidates are partitioned as fork-join tasks of the calling pool
+        private synchronized DecisionNode[] buildChildren(boolean parallel) {
+            if (children != null) {
+                return children;
+            }
+            int chunkCount = parallel ? (candidates.length + PARTITION_CHUNK - 1) / PARTITION_CHUNK : 1;
+            int chunkSize = chunkCount <= 1 ? candidates.length : PARTITION_CHUNK;
+            int feedbackCount = codes.feedbackCount();
+            int[] feedbacks = new int[candidates.length];
+            // Each chunk's group sizes, then where each chunk starts writing in each group
+            int[][] chunkSizes = new int[Math.max(1, chunkCount)][feedbackCount];
+            forEachChunk(chunkCount, chunk -> {
+                int[] sizes = chunkSizes[chunk];
+                for (int i = chunk * chunkSize, end = Math.min(candidates.length, i + chunkSize); i < end; i++) {
+                    int feedback = codes.feedback(guess, candidates[i]);
+                    feedbacks[i] = feedback;
+                    sizes[feedback]++;
+                }
+            });
+            int[][] groups = new int[feedbackCount][];
+            for (int feedback = 0; feedback < feedbackCount; feedback++) {
+                int size = 0;
+                for (int[] sizes : chunkSizes) {
+                    int chunkCandidates = sizes[feedback];
+                    sizes[feedback] = size;
+                    size += chunkCandidates;
+                }
+                groups[feedback] = new int[size];
+            }
+            forEachChunk(chunkCount, chunk -> {
+                int[] next = chunkSizes[chunk];
+                for (int i = chunk * chunkSize, end = Math.min(candidates.length, i + chunkSize); i < end; i++) {
+                    groups[feedbacks[i]][next[feedbacks[i]]++] = candidates[i];
+                }
+            });
+
+            DecisionNode[] built = new DecisionNode[feedbackCount];
+            for (int feedback = 0; feedback < feedbackCount; feedback++) {
+                // Candidates stay sorted, so the first one is the lowest consistent code
+                if (feedback != codes.winningFeedback() && groups[feedback].length > 0) {
+                    built[feedback] = new DecisionNode(codes, groups[feedback][0], groups[feedback]);
+                }
+            }
+            candidates = null; // The children hold everything needed from here on
+            children = built;
+            return built;
+        }
+
+        private static void forEachChunk(int chunkCount, IntConsumer body) {
+            if (chunkCount <= 1) {
+                body.accept(0);
+                return;
+            }
+            List<ForkJoinTask<?>> chunks = new ArrayList<>(chunkCount);
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                int index = chunk;
+                chunks.add(ForkJoinTask.adapt(() -> body.accept(index)));
+            }
+            ForkJoinTask.invokeAll(chunks);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * Prints every game message straight to the console. This is the default listener.
+ */
+public class ConsoleGameListener implements GameListener {
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void message(String text) {
+        System.out.println(text);
+    }
+}
@@ -0,0 +1,233 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * A binary image of what a PhraseCorpus works out from its text file: the line index,
+ * the version and the pattern index. It is written beside the text file, as
+ * "<file>.snapshot", and records the text file's size and modification time, so a stale
+ * image is ignored rather than trusted.
+ *
+ * Opening a corpus from its snapshot maps the image and keeps the line index as a view
+ * of it, so startup does not touch the text at all and takes the same time for any
+ * corpus size. The pattern index is only copied out of the image when a game first asks
+ * for it, and even then no phrase is decoded.
+ *
+ * Layout, little-endian, each section starting on an 8-byte boundary: a header; the line
+ * starts (phrases + 1 longs); the letter masks (an int per phrase); the phrases of each
+ * pattern as offsets (patterns + 1 ints) and phrase indexes (an int per phrase); the
+ * letter counts (26 ints per pattern); then each pattern as a length and UTF-8 bytes.
+ */
+public class CorpusSnapshot {
+    private static final int MAGIC = 0x43534E50; // "CSNP"
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 40;
+
+    private final MappedByteBuffer image;
+    private final long version;
+    private final int phraseCount;
+    private final int patternCount;
+
+    private CorpusSnapshot(MappedByteBuffer image, long version, int phraseCount, int patternCount) {
+        this.image = image;
+        this.version = version;
+        this.phraseCount = phraseCount;
+        this.patternCount = patternCount;
+    }
+
+    // Where the snapshot of a phrase file lives
+    public static Path snapshotFile(Path textFile) {
+        return Paths.get(textFile + ".snapshot");
+    }
+
+    /**
+     * Opens a phrase file, from its snapshot when there is an up-to-date one and by
+     * scanning the file otherwise.
+     *
+     * @param textFile the phrase file.
+     * @return the corpus.
+     * @throws IOException if the phrase file cannot be opened or mapped.
+     */
+    public static PhraseCorpus open(Path textFile) throws IOException {
+        Path snapshotFile = snapshotFile(textFile);
+        if (Files.exists(snapshotFile)) {
+            try {
+                return read(textFile, snapshotFile);
+            } catch (IOException e) {
+                // Stale or damaged; fall back to the text
+            }
+        }
+        return new PhraseCorpus(textFile);
+    }
+
+    /**
+     * Opens a phrase file from a snapshot of it.
+     *
+     * @param textFile the phrase file.
+     * @param snapshotFile the snapshot written for it.
+     * @return the corpus.
+     * @throws IOException if either file cannot be mapped, or the snapshot is not one of the
+     *                     phrase file as it is now.
+     */
+    public static PhraseCorpus read(Path textFile, Path snapshotFile) throws IOException {
+        MappedByteBuffer image;
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            image = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        image.order(ByteOrder.LITTLE_ENDIAN);
+        if (image.limit() < HEADER_SIZE || image.getInt(0) != MAGIC || image.getInt(4) != FORMAT) {
+            throw new IOException(snapshotFile + " is not a corpus snapshot");
+        }
+        if (image.getLong(8) != Files.size(textFile)
+                || image.getLong(16) != Files.getLastModifiedTime(textFile).toMillis()) {
+            throw new IOException(snapshotFile + " is out of date with " + textFile);
+        }
+        CorpusSnapshot snapshot = new CorpusSnapshot(image, image.getLong(24), image.getInt(32), image.getInt(36));
+        if (image.limit() < snapshot.patternTextAt()) {
+            throw new IOException(snapshotFile + " is truncated");
+        }
+        return new PhraseCorpus(textFile, snapshot);
+    }
+
+    /**
+     * Scans a phrase file, builds its pattern index and writes the snapshot beside it.
+     *
+     * @param textFile the phrase file.
+     * @return the corpus the snapshot was taken of.
+     * @throws IOException if the phrase file cannot be read or the snapshot cannot be written.
+     */
+    public static PhraseCorpus write(Path textFile) throws IOException {
+        long textSize = Files.size(textFile);
+        long textModified = Files.getLastModifiedTime(textFile).toMillis();
+        PhraseCorpus corpus = new PhraseCorpus(textFile);
+        PhrasePatternIndex index = corpus.patternIndex();
+        int phrases = corpus.size();
+        int patterns = index.patternCount();
+
+        byte[][] patternText = new byte[patterns][];
+        long size = new CorpusSnapshot(null, 0, phrases, patterns).patternTextAt();
+        for (int id = 0; id < patterns; id++) {
+            patternText[id] = index.pattern(id).getBytes(StandardCharsets.UTF_8);
+            size += 4 + patternText[id].length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(FORMAT).putLong(textSize).putLong(textModified).putLong(corpus.version())
+                .putInt(phrases).putInt(patterns);
+        LongBuffer lineStarts = corpus.lineStarts();
+        while (lineStarts.hasRemaining()) {
+            buffer.putLong(lineStarts.get());
+        }
+        for (int i = 0; i < phrases; i++) {
+            buffer.putInt(index.letterMask(i));
+        }
+        align(buffer);
+        int offset = 0;
+        for (int id = 0; id < patterns; id++) {
+            buffer.putInt(offset);
+            offset += index.phrases(id).length;
+        }
+        buffer.putInt(offset);
+        align(buffer);
+        for (int id = 0; id < patterns; id++) {
+            for (int phrase : index.phrases(id)) {
+                buffer.putInt(phrase);
+            }
+        }
+        align(buffer);
+        for (int id = 0; id < patterns; id++) {
+            for (int count : index.letterCounts(id)) {
+                buffer.putInt(count);
+            }
+        }
+        align(buffer);
+        for (byte[] text : patternText) {
+            buffer.putInt(text.length).put(text);
+        }
+        buffer.flip();
+
+        AtomicFiles.write(snapshotFile(textFile), buffer);
+        return corpus;
+    }
+
+    private static void align(ByteBuffer buffer) {
+        while ((buffer.position() & 7) != 0) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    // Section offsets, derived from the counts in the header
+    private long masksAt() {
+        return HEADER_SIZE + (phraseCount + 1L) * 8;
+    }
+
+    private long patternStartsAt() {
+        return aligned(masksAt() + phraseCount * 4L);
+    }
+
+    private long patternPhrasesAt() {
+        return aligned(patternStartsAt() + (patternCount + 1L) * 4);
+    }
+
+    private long letterCountsAt() {
+        return aligned(patternPhrasesAt() + phraseCount * 4L);
+    }
+
+    private long patternTextAt() {
+        return aligned(letterCountsAt() + patternCount * 26L * 4);
+    }
+
+    private static long aligned(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    long version() {
+        return version;
+    }
+
+    // A view of the line starts in the image; nothing is copied
+    LongBuffer lineStarts() {
+        return section(HEADER_SIZE).asLongBuffer().limit(phraseCount + 1);
+    }
+
+    // Copies the pattern index out of the image; phrases is the corpus the index is for
+    PhrasePatternIndex patternIndex(List<String> phrases) {
+        int[] letterMasks = new int[phraseCount];
+        section(masksAt()).asIntBuffer().get(letterMasks);
+
+        int[] starts = new int[patternCount + 1];
+        section(patternStartsAt()).asIntBuffer().get(starts);
+        IntBuffer patternPhrases = section(patternPhrasesAt()).asIntBuffer();
+        IntBuffer letterCounts = section(letterCountsAt()).asIntBuffer();
+        int[][] phrasesByPattern = new int[patternCount][];
+        int[][] letterCountsByPattern = new int[patternCount][26];
+        for (int id = 0; id < patternCount; id++) {
+            phrasesByPattern[id] = new int[starts[id + 1] - starts[id]];
+            patternPhrases.get(phrasesByPattern[id]);
+            letterCounts.get(letterCountsByPattern[id]);
+        }
+
+        String[] patterns = new String[patternCount];
+        ByteBuffer text = section(patternTextAt());
+        for (int id = 0; id < patternCount; id++) {
+            byte[] bytes = new byte[text.getInt()];
+            text.get(bytes);
+            patterns[id] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new PhrasePatternIndex(phrases, letterMasks, patterns, phrasesByPattern, letterCountsByPattern);
+    }
+
+    private ByteBuffer section(long offset) {
+        return image.duplicate().position((int) offset).slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
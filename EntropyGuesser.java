@@ -0,0 +1,287 @@
+import java.util.Arrays;
+
+/**
+ * Guesses the letter that tells it the most about the words on the board. Each word slot
+ * keeps its candidates as a bitset over the dictionary words of its length, narrowed
+ * after every guess by the positions where the letter was, or was not, revealed. A guess
+ * splits each slot's candidates by where the letter falls in them; the guesser picks the
+ * letter with the largest expected information, summed over the slots, in bits.
+ *
+ * Every letter of the phrase costs a guess anyway, so a letter that is in every candidate
+ * of some slot is free: such letters are taken first, best split first. Words outside the
+ * dictionary give no information, and once nothing is left to learn the guesser falls
+ * back to a fixed English frequency order.
+ */
+public class EntropyGuesser implements WheelOfFortunePlayer {
+    private static final char[] FALLBACK_ORDER = "eaoinshrtldcumwfgypbvkjxqz".toCharArray();
+
+    private final WordDictionary dictionary;
+    // How a letter splits all the words of a length, the slow part of every first guess, kept per length
+    private final double[][] lengthInformation = new double[WordDictionary.MAX_LENGTH + 1][];
+    private final int[] lengthCertain = new int[WordDictionary.MAX_LENGTH + 1];
+    private final int[] lengthPossible = new int[WordDictionary.MAX_LENGTH + 1];
+    private int[] slotStarts = new int[8];
+    private int[] slotLengths = new int[8];
+    private long[][] candidates = new long[8][];
+    private int slotCount;
+    private int guessedLetters;
+    private char lastGuess;
+    private boolean started;
+
+    // Scratch space for counting how a letter splits a slot's candidates
+    private long[] groupKeys = new long[64];
+    private int[] groupCounts = new int[64];
+    private int[] usedGroups = new int[64];
+    private final double[] information = new double[26];
+
+    public EntropyGuesser(WordDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public char nextGuess() {
+        return remember(fallbackGuess());
+    }
+
+    @Override
+    public char nextGuess(CharSequence hiddenPhrase) {
+        if (!started) {
+            started = true;
+            findSlots(hiddenPhrase);
+        } else if (lastGuess != 0) {
+            filterCandidates(hiddenPhrase);
+        }
+        return remember(chooseLetter());
+    }
+
+    // Splits the board into words: runs of hidden or revealed letters
+    private void findSlots(CharSequence hiddenPhrase) {
+        slotCount = 0;
+        int start = -1;
+        for (int i = 0; i <= hiddenPhrase.length(); i++) {
+            char c = i < hiddenPhrase.length() ? hiddenPhrase.charAt(i) : ' ';
+            boolean inWord = c == '*' || Character.isLetter(c);
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                addSlot(start, i - start);
+                start = -1;
+            }
+        }
+    }
+
+    private void addSlot(int start, int length) {
+        if (slotCount == slotStarts.length) {
+            slotStarts = Arrays.copyOf(slotStarts, slotCount * 2);
+            slotLengths = Arrays.copyOf(slotLengths, slotCount * 2);
+            candidates = Arrays.copyOf(candidates, slotCount * 2);
+        }
+        slotStarts[slotCount] = start;
+        slotLengths[slotCount] = length;
+        candidates[slotCount] = dictionary.wordCount(length) > 0 ? dictionary.allWords(length) : null;
+        slotCount++;
+    }
+
+    // Keeps the candidates that have the last guess exactly where the board shows it
+    private void filterCandidates(CharSequence hiddenPhrase) {
+        if (lastGuess < 'a' || lastGuess > 'z') {
+            return;
+        }
+        for (int slot = 0; slot < slotCount; slot++) {
+            long[] slotCandidates = candidates[slot];
+            if (slotCandidates == null) {
+                continue;
+            }
+            int start = slotStarts[slot];
+            int length = slotLengths[slot];
+            for (int position = 0; position < length; position++) {
+                boolean present = hiddenPhrase.charAt(start + position) == lastGuess;
+                dictionary.restrict(slotCandidates, length, position, lastGuess, present);
+            }
+        }
+    }
+
+    // Free letters first, then the most informative one; ties go to the more common English letter
+    private char chooseLetter() {
+        Arrays.fill(information, 0.0);
+        int certainLetters = 0;
+        int possibleLetters = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            long[] slotCandidates = candidates[slot];
+            int count = slotCandidates == null ? 0 : count(slotCandidates);
+            if (count == 0) {
+                continue;
+            }
+            int length = slotLengths[slot];
+            if (guessedLetters == 0) {
+                // Nothing guessed yet, so the slot still holds every word of its length
+                if (lengthInformation[length] == null) {
+                    splitLength(length, slotCandidates, count);
+                }
+                for (int letter = 0; letter < 26; letter++) {
+                    information[letter] += lengthInformation[length][letter];
+                }
+                certainLetters |= lengthCertain[length];
+                possibleLetters |= lengthPossible[length];
+                continue;
+            }
+            int slotLetters = dictionary.letterMask(slotCandidates, length) & ~guessedLetters;
+            if (count == 1) {
+                // A known word: its letters are certain and there is nothing left to learn
+                certainLetters |= slotLetters;
+                possibleLetters |= slotLetters;
+                continue;
+            }
+            for (int letters = slotLetters; letters != 0; letters &= letters - 1) {
+                int letter = Integer.numberOfTrailingZeros(letters);
+                int absent = split(length, slotCandidates, count, letter);
+                if (absent == 0) {
+                    certainLetters |= 1 << letter;
+                }
+                if (absent < count) {
+                    possibleLetters |= 1 << letter;
+                }
+            }
+        }
+
+        int choices = certainLetters != 0 ? certainLetters : possibleLetters;
+        char best = 0;
+        double bestInformation = -1;
+        for (char letter : FALLBACK_ORDER) {
+            int bit = WheelOfFortune.letterBit(letter);
+            if ((choices & bit) != 0 && information[letter - 'a'] > bestInformation) {
+                best = letter;
+                bestInformation = information[letter - 'a'];
+            }
+        }
+        return best != 0 ? best : fallbackGuess();
+    }
+
+    // Works out every letter's split of the full word set of a length, adding nothing to information
+    private void splitLength(int length, long[] allWords, int count) {
+        double[] saved = information.clone();
+        Arrays.fill(information, 0.0);
+        for (int letter = 0; letter < 26; letter++) {
+            int absent = split(length, allWords, count, letter);
+            if (absent == 0) {
+                lengthCertain[length] |= 1 << letter;
+            }
+            if (absent < count) {
+                lengthPossible[length] |= 1 << letter;
+            }
+        }
+        lengthInformation[length] = information.clone();
+        System.arraycopy(saved, 0, information, 0, 26);
+    }
+
+    /**
+     * Groups a slot's candidates by the positions a letter takes in them and adds the
+     * entropy of that split to the letter's information.
+     *
+     * @return how many candidates do not contain the letter.
+     */
+    private int split(int length, long[] slotCandidates, int count, int letter) {
+        byte[] words = dictionary.words(length);
+        byte target = (byte) ('a' + letter);
+        int capacity = Integer.highestOneBit(Math.max(2, count) - 1) << 2;
+        if (groupKeys.length < capacity) {
+            groupKeys = new long[capacity];
+            groupCounts = new int[capacity];
+            usedGroups = new int[capacity];
+        }
+
+        int absent = 0;
+        int groups = 0;
+        for (int k = 0; k < slotCandidates.length; k++) {
+            for (long bitsLeft = slotCandidates[k]; bitsLeft != 0; bitsLeft &= bitsLeft - 1) {
+                int word = (k << 6) + Long.numberOfTrailingZeros(bitsLeft);
+                long positions = 0;
+                for (int i = 0, at = word * length; i < length; i++, at++) {
+                    if (words[at] == target) {
+                        positions |= 1L << i;
+                    }
+                }
+                if (positions == 0) {
+                    absent++;
+                } else {
+                    int at = (int) (mix(positions) & (capacity - 1));
+                    while (groupCounts[at] != 0 && groupKeys[at] != positions) {
+                        at = (at + 1) & (capacity - 1);
+                    }
+                    if (groupCounts[at] == 0) {
+                        groupKeys[at] = positions;
+                        usedGroups[groups++] = at;
+                    }
+                    groupCounts[at]++;
+                }
+            }
+        }
+
+        // H = log2(n) - sum(c * log2(c)) / n over the groups, the empty one included
+        double sum = absent > 1 ? absent * log2(absent) : 0.0;
+        for (int i = 0; i < groups; i++) {
+            int group = groupCounts[usedGroups[i]];
+            groupCounts[usedGroups[i]] = 0; // Leaves the table empty for the next split
+            if (group > 1) {
+                sum += group * log2(group);
+            }
+        }
+        information[letter] += log2(count) - sum / count;
+        return absent;
+    }
+
+    private static int count(long[] set) {
+        int count = 0;
+        for (long word : set) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static double log2(double x) {
+        return Math.log(x) * (1.0 / Math.log(2.0));
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        return z ^ (z >>> 33);
+    }
+
+    private char fallbackGuess() {
+        for (char letter : FALLBACK_ORDER) {
+            if ((guessedLetters & WheelOfFortune.letterBit(letter)) == 0) {
+                return letter;
+            }
+        }
+        return ' '; // Every letter has been guessed; failsafe
+    }
+
+    private char remember(char guess) {
+        guessedLetters |= WheelOfFortune.letterBit(guess);
+        lastGuess = guess;
+        return guess;
+    }
+
+    @Override
+    public String playerId() {
+        return "EntropyGuesser";
+    }
+
+    @Override
+    public void reset() {
+        guessedLetters = 0;
+        slotCount = 0;
+        lastGuess = 0;
+        started = false;
+    }
+
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    @Override
+    public boolean readsBoard() {
+        return true;
+    }
+}
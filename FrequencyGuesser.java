@@ -0,0 +1,173 @@
+import java.util.Arrays;
+
+/**
+ * Guesses the letter that occurs in the most corpus phrases still consistent with the
+ * board. Candidates start as the phrases sharing the board's word pattern and are
+ * narrowed after every guess, so each decision only touches the remaining candidates.
+ * Narrowing reads the letter masks and letters the index keeps per phrase, so no phrase
+ * is decoded during a game.
+ * Falls back to a fixed English frequency order for phrases outside the corpus.
+ */
+public class FrequencyGuesser implements WheelOfFortunePlayer {
+    private static final char[] FALLBACK_ORDER = "eaoinshrtldcumwfgypbvkjxqz".toCharArray();
+
+    private final PhrasePatternIndex index;
+    // Candidates are rows of the board's pattern: patternPhrases[row] is the phrase
+    private int[] patternPhrases;
+    private PhrasePatternIndex.PatternLetters patternLetters;
+    private int[] candidates = new int[0];
+    private int candidateCount;
+    private int guessedLetters;
+    private char lastGuess;
+    private boolean started;
+    private final int[] letterCounts = new int[26];
+    private boolean[] revealed = new boolean[0];
+
+    public FrequencyGuesser(PhrasePatternIndex index) {
+        this.index = index;
+    }
+
+    @Override
+    public char nextGuess() {
+        return remember(fallbackGuess());
+    }
+
+    @Override
+    public char nextGuess(CharSequence hiddenPhrase) {
+        char guess;
+        if (!started) {
+            // The first choice only depends on the pattern, so it comes from the index's counts
+            started = true;
+            int patternId = index.patternId(PhrasePatternIndex.pattern(hiddenPhrase));
+            if (patternId < 0) {
+                candidateCount = 0;
+                return remember(fallbackGuess());
+            }
+            patternPhrases = index.phrases(patternId);
+            patternLetters = index.letters(patternId);
+            if (candidates.length < patternPhrases.length) {
+                candidates = new int[patternPhrases.length];
+            }
+            for (int row = 0; row < patternPhrases.length; row++) {
+                candidates[row] = row;
+            }
+            candidateCount = patternPhrases.length;
+            guess = mostFrequentLetter(index.letterCounts(patternId));
+        } else {
+            if (lastGuess != 0) {
+                filterCandidates(hiddenPhrase);
+            }
+            guess = mostFrequentLetter(countLetters());
+        }
+        return remember(guess != 0 ? guess : fallbackGuess());
+    }
+
+    // Drops candidates that disagree with where the last guess was (or was not) revealed
+    private void filterCandidates(CharSequence hiddenPhrase) {
+        if (candidateCount == 0) {
+            return;
+        }
+        int[] positions = patternLetters.positions();
+        if (revealed.length < positions.length) {
+            revealed = new boolean[positions.length];
+        }
+        boolean hit = false;
+        for (int k = 0; k < positions.length; k++) {
+            revealed[k] = hiddenPhrase.charAt(positions[k]) == lastGuess;
+            hit |= revealed[k];
+        }
+        int letterBit = WheelOfFortune.letterBit(lastGuess);
+        int letter = lastGuess - 'a';
+
+        int kept = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int row = candidates[i];
+            boolean consistent;
+            if (!hit) {
+                consistent = (index.letterMask(patternPhrases[row]) & letterBit) == 0;
+            } else {
+                consistent = (index.letterMask(patternPhrases[row]) & letterBit) != 0
+                        && samePositions(row, positions.length, letter);
+            }
+            if (consistent) {
+                candidates[kept++] = row;
+            }
+        }
+        candidateCount = kept;
+    }
+
+    // Whether the phrase in a row has the letter exactly where the board revealed it
+    private boolean samePositions(int row, int hiddenCount, int letter) {
+        for (int k = 0; k < hiddenCount; k++) {
+            if ((patternLetters.letter(row, k) == letter) != revealed[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Counts each unguessed letter once per candidate phrase
+    private int[] countLetters() {
+        Arrays.fill(letterCounts, 0);
+        for (int i = 0; i < candidateCount; i++) {
+            int letters = index.letterMask(patternPhrases[candidates[i]]) & ~guessedLetters;
+            while (letters != 0) {
+                letterCounts[Integer.numberOfTrailingZeros(letters)]++;
+                letters &= letters - 1;
+            }
+        }
+        return letterCounts;
+    }
+
+    // Unguessed letter with the highest count, ties going to the more common English letter; 0 if none
+    private char mostFrequentLetter(int[] counts) {
+        char best = 0;
+        int bestCount = 0;
+        for (char letter : FALLBACK_ORDER) {
+            int count = (guessedLetters & WheelOfFortune.letterBit(letter)) == 0 ? counts[letter - 'a'] : 0;
+            if (count > bestCount) {
+                best = letter;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    private char fallbackGuess() {
+        for (char letter : FALLBACK_ORDER) {
+            if ((guessedLetters & WheelOfFortune.letterBit(letter)) == 0) {
+                return letter;
+            }
+        }
+        return ' '; // Every letter has been guessed; failsafe
+    }
+
+    private char remember(char guess) {
+        guessedLetters |= WheelOfFortune.letterBit(guess);
+        lastGuess = guess;
+        return guess;
+    }
+
+    @Override
+    public String playerId() {
+        return "FrequencyGuesser";
+    }
+
+    @Override
+    public void reset() {
+        guessedLetters = 0;
+        candidateCount = 0;
+        lastGuess = 0;
+        started = false;
+    }
+
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    @Override
+    public boolean readsBoard() {
+        return true;
+    }
+}
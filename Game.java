@@ -1,4 +1,14 @@
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 public abstract class Game {
+    protected GameListener listener = new ConsoleGameListener();
+
     public AllGamesRecord playAll() {
         AllGamesRecord allRecords = new AllGamesRecord();
         while (playNext()) {
@@ -8,6 +18,32 @@ public abstract class Game {
         return allRecords;
     }
 
+    // Lazy alternative to playAll: a game is only played when the next record is pulled, and nothing is kept
+    public Stream<GameRecord> stream() {
+        Spliterator<GameRecord> games = new Spliterators.AbstractSpliterator<GameRecord>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super GameRecord> action) {
+                if (!playNext()) {
+                    return false;
+                }
+                action.accept(play());
+                return true;
+            }
+        };
+        return StreamSupport.stream(games, false);
+    }
+
+    // Publishes the records of stream() on the executor, playing games only as fast as the subscriber requests them
+    public Flow.Publisher<GameRecord> publisher(Executor executor) {
+        return new GameRecordPublisher(stream(), executor);
+    }
+
+    // Replaces where game progress messages go, e.g. a SilentGameListener for batch runs
+    public void setListener(GameListener listener) {
+        this.listener = listener;
+    }
+
     protected abstract GameRecord play();
 
     protected abstract boolean playNext();
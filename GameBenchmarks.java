@@ -0,0 +1,430 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Micro-benchmarks for the game hot paths: per-guess latency of each guesser,
+ * full-phrase solves through WheelOfFortuneAIGame.play, processGuess against the
+ * compiled reveal, getHiddenPhrase, a SWAR batch reveal against both, lockstep against
+ * one-at-a-time play of a fixed-order guesser, and Mastermind feedback scoring. Phrases and
+ * codes are generated from a fixed seed so results can be reproduced offline.
+ *
+ * Run from the project directory so WOFPhrases.txt can be found, optionally
+ * passing a filter: java GameBenchmarks solve
+ */
+public class GameBenchmarks {
+    private static final long SEED = 20240601L;
+    private static final int[] PHRASE_LENGTHS = {16, 64, 256, 1024};
+    private static final int[] REVEAL_LENGTHS = {10, 100, 1000, 10000};
+    private static final int REVEAL_BATCH_CHARS = 1 << 20;
+    private static final int[] CODE_LENGTHS = {4, 6, 8};
+    private static final int CORPUS_SIZE = 256;
+    private static final long WARMUP_NANOS = 500_000_000L;
+    private static final long MEASURE_NANOS = 1_000_000_000L;
+
+    private static String filter = "";
+
+    // Results are folded in here so the JIT cannot discard the benchmarked work
+    static volatile long sink;
+
+    public static void main(String[] args) {
+        filter = args.length > 0 ? args[0] : "";
+        WheelOfFortuneAIGame game = new WheelOfFortuneAIGame();
+        game.setListener(new SilentGameListener());
+
+        benchmarkGuessers();
+        benchmarkSolves(game);
+        benchmarkProcessGuess(game);
+        benchmarkBatchReveal(game);
+        benchmarkLockstep(game);
+        benchmarkMastermind();
+    }
+
+    private static void benchmarkGuessers() {
+        List<Supplier<WheelOfFortunePlayer>> guessers = Arrays.asList(
+                () -> new Random1Guesser(SEED), () -> new RejectionGuesser(SEED), () -> new Random2Guesser(SEED),
+                Random3Guesser::new);
+        for (Supplier<WheelOfFortunePlayer> supplier : guessers) {
+            WheelOfFortunePlayer player = supplier.get();
+            // A game never needs more than 26 guesses, so reset before a non-repeating guesser runs dry
+            run("guess", player.playerId(), 26, () -> {
+                player.reset();
+                long sum = 0;
+                for (int i = 0; i < 26; i++) {
+                    sum += player.nextGuess();
+                }
+                return sum;
+            });
+        }
+    }
+
+    private static void benchmarkSolves(WheelOfFortuneAIGame game) {
+        for (int length : PHRASE_LENGTHS) {
+            List<String> corpus = generatePhrases(CORPUS_SIZE, length, SEED);
+            PhrasePatternIndex index = new PhrasePatternIndex(corpus);
+            List<CompiledPhrase> compiled = new ArrayList<>();
+            for (String phrase : corpus) {
+                compiled.add(CompiledPhrase.compile(phrase));
+            }
+            List<Supplier<WheelOfFortunePlayer>> guessers = Arrays.asList(
+                    () -> new Random1Guesser(SEED), () -> new RejectionGuesser(SEED), () -> new Random2Guesser(SEED),
+                    Random3Guesser::new, () -> new FrequencyGuesser(index));
+            for (Supplier<WheelOfFortunePlayer> supplier : guessers) {
+                WheelOfFortunePlayer player = supplier.get();
+                int[] next = {0};
+                run("solve", player.playerId() + " length=" + length, 1, () -> {
+                    CompiledPhrase phrase = compiled.get(next[0]++ % compiled.size());
+                    return game.play(player, phrase).getScore();
+                });
+            }
+        }
+    }
+
+    private static void benchmarkProcessGuess(WheelOfFortuneAIGame game) {
+        for (int length : PHRASE_LENGTHS) {
+            String phrase = generatePhrases(1, length, SEED).get(0);
+            StringBuilder hidden = new StringBuilder(game.getHiddenPhrase(phrase, new ArrayList<>()));
+            run("processGuess", "length=" + length, 26, () -> {
+                long hits = 0;
+                for (char guess = 'a'; guess <= 'z'; guess++) {
+                    hits += game.processGuess(guess, phrase, hidden) ? 1 : 0;
+                }
+                return hits;
+            });
+            CompiledPhrase compiled = CompiledPhrase.compile(phrase);
+            run("reveal", "length=" + length, 26, () -> {
+                long hits = 0;
+                for (char guess = 'a'; guess <= 'z'; guess++) {
+                    hits += compiled.reveal(guess, hidden);
+                }
+                return hits;
+            });
+            run("compilePhrase", "length=" + length, 1, () -> CompiledPhrase.compile(phrase).letterMask());
+            List<Character> guesses = Arrays.asList('e', 'a', 'o', 'i', 'n', 's');
+            run("getHiddenPhrase", "length=" + length, 1, () -> game.getHiddenPhrase(phrase, guesses).length());
+        }
+    }
+
+    // One guess revealed on every board of a batch of about 1M characters; the unit is one guess on one board
+    private static void benchmarkBatchReveal(WheelOfFortuneAIGame game) {
+        for (int length : REVEAL_LENGTHS) {
+            List<String> phrases = generatePhrases(Math.max(1, REVEAL_BATCH_CHARS / length), length, SEED);
+            List<StringBuilder> hidden = new ArrayList<>();
+            List<CompiledPhrase> compiled = new ArrayList<>();
+            for (String phrase : phrases) {
+                hidden.add(new StringBuilder(game.getHiddenPhrase(phrase, 0)));
+                compiled.add(CompiledPhrase.compile(phrase));
+            }
+            int units = 26 * phrases.size();
+            run("batchReveal", "scalar length=" + length, units, () -> {
+                long hits = 0;
+                for (char guess = 'a'; guess <= 'z'; guess++) {
+                    for (int i = 0; i < phrases.size(); i++) {
+                        hits += game.processGuess(guess, phrases.get(i), hidden.get(i)) ? 1 : 0;
+                    }
+                }
+                return hits;
+            });
+            run("batchReveal", "compiled length=" + length, units, () -> {
+                long hits = 0;
+                for (char guess = 'a'; guess <= 'z'; guess++) {
+                    for (int i = 0; i < compiled.size(); i++) {
+                        hits += compiled.get(i).reveal(guess, hidden.get(i));
+                    }
+                }
+                return hits;
+            });
+            SwarBatch batch = new SwarBatch(phrases);
+            byte[] boards = batch.hiddenBoards();
+            long[] revealed = new long[(batch.byteLength() + 63) >>> 6];
+            run("batchReveal", "swar length=" + length, units, () -> {
+                long hits = 0;
+                for (char guess = 'a'; guess <= 'z'; guess++) {
+                    hits += batch.reveal(guess, boards, null);
+                }
+                return hits;
+            });
+            run("batchReveal", "swar+mask length=" + length, units, () -> {
+                long hits = 0;
+                for (char guess = 'a'; guess <= 'z'; guess++) {
+                    hits += batch.reveal(guess, boards, revealed);
+                }
+                return hits;
+            });
+            run("hiddenBoard", "scalar length=" + length, phrases.size(), () -> {
+                long chars = 0;
+                for (String phrase : phrases) {
+                    chars += game.getHiddenPhrase(phrase, 0).length();
+                }
+                return chars;
+            });
+            run("hiddenBoard", "swar length=" + length, phrases.size(), () -> batch.hiddenBoards().length);
+        }
+    }
+
+    // Whole corpora of games, so the unit is one game either way
+    private static void benchmarkLockstep(WheelOfFortuneAIGame game) {
+        for (int length : PHRASE_LENGTHS) {
+            List<String> corpus = generatePhrases(CORPUS_SIZE * 16, length, SEED);
+            List<CompiledPhrase> compiled = new ArrayList<>();
+            for (String phrase : corpus) {
+                compiled.add(CompiledPhrase.compile(phrase));
+            }
+            WheelOfFortunePlayer player = new Random3Guesser();
+            run("lockstep", "oneAtATime length=" + length, compiled.size(), () -> {
+                long sum = 0;
+                for (CompiledPhrase phrase : compiled) {
+                    sum += game.play(player, phrase).getScore();
+                }
+                return sum;
+            });
+            LockstepSimulator simulator = new LockstepSimulator(corpus);
+            run("lockstep", "lockstep length=" + length, compiled.size(), () -> {
+                long sum = 0;
+                for (int guessCount : simulator.guessCounts(player)) {
+                    sum += 100 - guessCount;
+                }
+                return sum;
+            });
+        }
+    }
+
+    private static void benchmarkMastermind() {
+        String[] colors = {"R", "B", "G", "Y"};
+        for (int codeLength : CODE_LENGTHS) {
+            Random random = new Random(SEED);
+            Mastermind mastermind = new Mastermind(10, codeLength, randomCode(random, colors, codeLength));
+            mastermind.setListener(new SilentGameListener());
+            String[] guesses = new String[CORPUS_SIZE];
+            for (int i = 0; i < guesses.length; i++) {
+                guesses[i] = randomCode(random, colors, codeLength);
+            }
+            int[] next = {0};
+            run("mastermindFeedback", "codeLength=" + codeLength, 1,
+                    () -> mastermind.validateGuess(guesses[next[0]++ % guesses.length]) ? 1 : 0);
+
+            // The packed inner loop an automated solver uses, without the text layer
+            int[] packedGuesses = new int[guesses.length];
+            for (int i = 0; i < guesses.length; i++) {
+                packedGuesses[i] = mastermind.parseCode(guesses[i]);
+            }
+            run("mastermindPacked", "codeLength=" + codeLength, 1,
+                    () -> mastermind.feedback(packedGuesses[next[0]++ % packedGuesses.length]));
+        }
+    }
+
+    /**
+     * Generates phrases of lowercase words separated by single spaces. Word lengths
+     * and letters are drawn from a seeded Random, so the corpus is the same every run.
+     *
+     * @param count the number of phrases to generate.
+     * @param length the length of each phrase in characters.
+     * @param seed the seed for the generator.
+     * @return the generated phrases.
+     */
+    static List<String> generatePhrases(int count, int length, long seed) {
+        Random random = new Random(seed);
+        List<String> phrases = new ArrayList<>();
+        for (int p = 0; p < count; p++) {
+            StringBuilder phrase = new StringBuilder();
+            int wordLeft = 1 + random.nextInt(8);
+            while (phrase.length() < length) {
+                if (wordLeft == 0 && phrase.length() < length - 1) {
+                    phrase.append(' ');
+                    wordLeft = 1 + random.nextInt(8);
+                } else {
+                    phrase.append((char) ('a' + random.nextInt(26)));
+                    wordLeft--;
+                }
+            }
+            phrases.add(phrase.toString());
+        }
+        return phrases;
+    }
+
+    private static String randomCode(Random random, String[] colors, int codeLength) {
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < codeLength; i++) {
+            code.append(colors[random.nextInt(colors.length)]).append(" ");
+        }
+        return code.toString().trim();
+    }
+
+    /**
+     * The non-repeating strategy Random2Guesser used before its shuffled alphabet: draw
+     * until a letter is not in a HashSet. Kept here as the baseline for the guess and solve
+     * benchmarks.
+     */
+    private static class RejectionGuesser implements WheelOfFortunePlayer {
+        private final Random random;
+        private final Set<Character> guessedLetters = new HashSet<>();
+
+        RejectionGuesser(long seed) {
+            this.random = new Random(seed);
+        }
+
+        @Override
+        public char nextGuess() {
+            char guess;
+            do {
+                guess = (char) ('a' + random.nextInt(26));
+            } while (guessedLetters.contains(guess));
+            guessedLetters.add(guess);
+            return guess;
+        }
+
+        @Override
+        public String playerId() {
+            return "RejectionGuesser";
+        }
+
+        @Override
+        public void reset() {
+            guessedLetters.clear();
+        }
+    }
+
+    /**
+     * A batch reveal that no game uses, kept as the comparison for batchReveal: ASCII phrases
+     * laid out back to back in one byte[], each padded with zero bytes to a multiple of 8,
+     * with boards in the same layout. A guess is matched against 8 bytes at a time as a long
+     * (SWAR). The Vector API would need an incubator module on this JDK, so it is not tried.
+     */
+    private static class SwarBatch {
+        private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+        private static final long ONES = 0x0101010101010101L;
+        private static final long HIGH_BITS = 0x8080808080808080L;
+        private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+        private static final long STARS = ONES * '*';
+
+        private final byte[] bytes;
+
+        // Every character of the phrases must be ASCII
+        SwarBatch(List<String> phrases) {
+            int total = 0;
+            for (String phrase : phrases) {
+                total += (phrase.length() + 7) & ~7;
+            }
+            bytes = new byte[total];
+            int offset = 0;
+            for (String phrase : phrases) {
+                for (int j = 0; j < phrase.length(); j++) {
+                    bytes[offset + j] = (byte) phrase.charAt(j);
+                }
+                offset += (phrase.length() + 7) & ~7;
+            }
+        }
+
+        int byteLength() {
+            return bytes.length;
+        }
+
+        // Fresh boards for the whole batch, every ASCII letter shown as '*'
+        byte[] hiddenBoards() {
+            byte[] boards = new byte[bytes.length];
+            for (int at = 0; at < bytes.length; at += 8) {
+                long word = (long) LONGS.get(bytes, at);
+                // Folding to lower case maps exactly 'A'-'Z' and 'a'-'z' to 0x61-0x7A; no byte carries into the next
+                long lower = word | (ONES * 0x20);
+                long atLeastA = (lower + ONES * (0x80 - 'a')) & HIGH_BITS;
+                long pastZ = (lower + ONES * (0x80 - 'z' - 1)) & HIGH_BITS;
+                long letters = ((atLeastA & ~pastZ) >>> 7) * 0xFF;
+                LONGS.set(boards, at, (word & ~letters) | (STARS & letters));
+            }
+            return boards;
+        }
+
+        // Reveals a letter on every board; revealed, if given, gets one bit per byte where it occurs
+        int reveal(char guess, byte[] boards, long[] revealed) {
+            long pattern = ONES * (guess & 0x7F);
+            int count = 0;
+            long maskWord = 0;
+            // Branch-free: whether a word holds the guess is a coin toss the CPU cannot predict
+            for (int at = 0; at < bytes.length; at += 8) {
+                long matches = zeroBytes((long) LONGS.get(bytes, at) ^ pattern);
+                long selected = (matches >>> 7) * 0xFF;
+                long board = (long) LONGS.get(boards, at);
+                LONGS.set(boards, at, (board & ~selected) | (pattern & selected));
+                count += Long.bitCount(matches);
+                if (revealed != null) {
+                    // Gathers the 8 high bits into the low byte, byte 0 first
+                    maskWord |= (((matches >>> 7) * 0x0102040810204080L) >>> 56) << (at & 63);
+                    if ((at & 63) == 56) {
+                        revealed[at >>> 6] = maskWord;
+                        maskWord = 0;
+                    }
+                }
+            }
+            if (revealed != null && (bytes.length & 63) != 0) {
+                revealed[bytes.length >>> 6] = maskWord;
+            }
+            return count;
+        }
+
+        // High bit of each byte set exactly where the byte is zero; no false positives from borrows
+        private static long zeroBytes(long word) {
+            return ~(((word & LOW_BITS) + LOW_BITS) | word | LOW_BITS);
+        }
+    }
+
+    /**
+     * An operation being measured. It returns a value so its work stays observable.
+     */
+    interface Operation {
+        long run();
+    }
+
+    /**
+     * Runs an operation for a warm-up period, then for a measured period, and prints
+     * the average time per unit, the throughput and the bytes allocated per unit.
+     *
+     * @param benchmark the benchmark group name.
+     * @param params a description of the parameters for this run.
+     * @param unitsPerCall how many units of work (guesses, games, scorings) one call performs.
+     * @param operation the operation to measure.
+     */
+    static void run(String benchmark, String params, int unitsPerCall, Operation operation) {
+        if (!(benchmark + " " + params).contains(filter)) {
+            return;
+        }
+        long sum = 0;
+        long end = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < end) {
+            sum += operation.run();
+        }
+
+        long calls = 0;
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        end = start + MEASURE_NANOS;
+        long now;
+        do {
+            for (int i = 0; i < 64; i++) {
+                sum += operation.run();
+            }
+            calls += 64;
+            now = System.nanoTime();
+        } while (now < end);
+        long allocated = allocatedBytes() - allocatedBefore;
+        sink += sum;
+
+        double nanosPerUnit = (double) (now - start) / (calls * unitsPerCall);
+        System.out.printf("%-20s %-30s %12.1f ns/op %,16.0f ops/s %10.1f B/op%n",
+                benchmark, params, nanosPerUnit, 1_000_000_000.0 / nanosPerUnit,
+                (double) allocated / (calls * unitsPerCall));
+    }
+
+    // Bytes allocated so far by the current thread, as reported by the HotSpot thread MXBean
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,194 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs any game type found by GameRegistry from a GameRunSpec. The run is cut into tasks,
+ * one per (repetition, player, shard); each task asks the game's provider for a Game and
+ * plays it with playAll(). Tasks run on a fork-join pool, their records are merged in task
+ * order, and every task's games, guesses and allocations are counted into GameMetrics, so a new
+ * game type only needs a provider to get parallelism, aggregation and metrics.
+ *
+ * Every task gets its own generator from a GameRandom over the spec's seed, so a run is
+ * reproducible at any parallelism.
+ */
+public class GameHarness {
+    // Fixed rather than tied to parallelism, so task seeds and results do not depend on the thread count
+    private static final int DEFAULT_SHARDS = 8;
+
+    private final GameRegistry registry;
+
+    public GameHarness(GameRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Runs a spec.
+     *
+     * @param spec what to run; option "shards" splits each game's work (default 8), and
+     *             "verbose=1" prints every game's messages through an AsyncGameListener.
+     * @param metrics where task games, guesses and allocations are counted.
+     * @return the records of every game, repetition by repetition, then player by player.
+     */
+    public AllGamesRecord run(GameRunSpec spec, GameMetrics metrics) {
+        GameProvider provider = registry.game(spec.getGame());
+        GameRunContext context = new GameRunContext(spec, registry);
+        List<String> players = spec.getPlayers().isEmpty()
+                ? registry.playerNames(provider.playerType()) : spec.getPlayers();
+        int shards = Math.max(1, spec.option("shards", DEFAULT_SHARDS));
+        // One writer thread for the messages of all tasks, closed once they are done
+        AsyncGameListener verbose = spec.option("verbose", 0) != 0 ? new AsyncGameListener() : null;
+        Run run = new Run(provider, context, players, shards, metrics,
+                verbose != null ? verbose : new SilentGameListener());
+
+        ForkJoinPool pool = new ForkJoinPool(spec.getParallelism());
+        try {
+            return pool.invoke(run.new HarnessTask(0, (long) spec.getRepetitions() * players.size() * shards));
+        } finally {
+            pool.shutdown();
+            if (verbose != null) {
+                verbose.close();
+            }
+        }
+    }
+
+    /**
+     * The fixed parts of one run, shared read-only by its tasks.
+     */
+    private static class Run {
+        private final GameProvider provider;
+        private final GameRunContext context;
+        private final List<String> players;
+        private final int shards;
+        private final GameMetrics metrics;
+        private final GameRandom random;
+        private final GameListener listener;
+
+        Run(GameProvider provider, GameRunContext context, List<String> players, int shards, GameMetrics metrics,
+                GameListener listener) {
+            this.provider = provider;
+            this.context = context;
+            this.players = players;
+            this.shards = shards;
+            this.metrics = metrics;
+            this.random = new GameRandom(context.spec().getSeed());
+            this.listener = listener;
+        }
+
+        // Tasks are numbered repetition-major, then player, then shard
+        AllGamesRecord playTask(long task) {
+            int shard = (int) (task % shards);
+            int playerIndex = (int) (task / shards % players.size());
+            int repetition = (int) (task / shards / players.size());
+            Game game = provider.newGame(context, players.get(playerIndex), shard, shards,
+                    random.forGame(playerIndex, repetition * shards + shard));
+            game.setListener(listener);
+
+            long allocatedBefore = GameMetrics.currentThreadAllocatedBytes();
+            AllGamesRecord records = game.playAll();
+            long allocated = allocatedBefore < 0 ? -1 : GameMetrics.currentThreadAllocatedBytes() - allocatedBefore;
+            recordMetrics(records, allocated);
+            return records;
+        }
+
+        // Counts consecutive games of the same player in one go; allocation is charged to the first batch
+        private void recordMetrics(AllGamesRecord records, long allocated) {
+            int start = 0;
+            while (start < records.size()) {
+                String playerId = records.get(start).getPlayerId();
+                long guessCount = records.get(start).getGuessCount();
+                int end = start + 1;
+                while (end < records.size() && records.get(end).getPlayerId().equals(playerId)) {
+                    guessCount += records.get(end).getGuessCount();
+                    end++;
+                }
+                metrics.recordGames(metrics.player(playerId), end - start, guessCount, start == 0 ? allocated : -1);
+                start = end;
+            }
+        }
+
+        /**
+         * Splits a range of tasks in half until one is left, merging records left to right.
+         */
+        @SuppressWarnings("serial") // Bound to its Run, so it could not be serialized anyway
+        private class HarnessTask extends RecursiveTask<AllGamesRecord> {
+            private final long from;
+            private final long to;
+
+            HarnessTask(long from, long to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected AllGamesRecord compute() {
+                if (to - from <= 1) {
+                    return from < to ? playTask(from) : new AllGamesRecord();
+                }
+                long middle = (from + to) >>> 1;
+                HarnessTask left = new HarnessTask(from, middle);
+                HarnessTask right = new HarnessTask(middle, to);
+                left.fork();
+                AllGamesRecord rightRecords = right.compute();
+                AllGamesRecord leftRecords = left.join();
+                leftRecords.addAll(rightRecords);
+                return leftRecords;
+            }
+        }
+    }
+
+    /**
+     * Runs a spec given as key=value arguments and prints the results. Besides the spec keys,
+     * "log" appends the records to a GameRecordLog and "metrics" writes a metrics snapshot.
+     * Run with the project directory on the class path so META-INF/services is found.
+     *
+     * @param args e.g. game=wheel players=random2,frequency repetitions=10 parallelism=4 seed=1
+     * @throws IOException if the log or snapshot cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        GameRegistry registry = GameRegistry.load();
+        if (args.length == 0) {
+            System.err.println("Usage: java GameHarness game=<name> [players=a,b] [corpus=file] [repetitions=n]"
+                    + " [parallelism=n] [seed=n] [shards=n] [verbose=1] [log=file] [metrics=file] [game options]");
+            System.err.println("Games: " + registry.gameNames());
+            return;
+        }
+        GameRunSpec spec = GameRunSpec.parse(args);
+        GameMetrics metrics = new GameMetrics();
+        AllGamesRecord records = new GameHarness(registry).run(spec, metrics);
+
+        String log = spec.option("log", null);
+        if (log != null) {
+            try (GameRecordLog recordLog = new GameRecordLog(Paths.get(log))) {
+                recordLog.appendAll(spec.getGame(), records);
+            }
+        }
+        String snapshot = spec.option("metrics", null);
+        if (snapshot != null) {
+            metrics.writeSnapshot(Paths.get(snapshot));
+        }
+
+        System.out.println("Run: " + spec);
+        System.out.printf("Games: %d at %.0f games/s, %.1f bytes allocated per game%n",
+                records.size(), metrics.getGamesPerSecond(), metrics.getAllocatedBytesPerGame());
+        System.out.println("The Average Score of All Games: " + records.average());
+        System.out.println("High Scores by Player:");
+        for (String playerId : playerIds(records)) {
+            System.out.println(playerId + ": average " + records.average(playerId) + ", best " + records.highGameList(playerId, 3));
+        }
+    }
+
+    private static List<String> playerIds(AllGamesRecord records) {
+        List<String> playerIds = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            String playerId = records.get(i).getPlayerId();
+            if (!playerIds.contains(playerId)) {
+                playerIds.add(playerId);
+            }
+        }
+        return playerIds;
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * Receives the progress messages a game reports while it is played. Games check
+ * isEnabled() before building a message, so a disabled listener costs nothing.
+ */
+public interface GameListener {
+    // Whether this listener wants messages at all
+    boolean isEnabled();
+
+    void message(String text);
+}
@@ -0,0 +1,230 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Instrumentation for simulation runs: per-player guess latency histograms, plus game,
+ * guess and allocation totals kept in LongAdders so game threads never contend on them.
+ * A game only records into it when one is set with WheelOfFortuneAIGame.setMetrics, so
+ * uninstrumented runs pay nothing.
+ *
+ * The numbers can be read through JMX once registerMBeans() is called, under the
+ * "WheelOfFortune" domain, and written to a text snapshot file, on demand or periodically
+ * from a background thread. Call close() to stop snapshots and unregister the beans.
+ */
+public class GameMetrics implements GameMetricsMBean, AutoCloseable {
+    private static final String DOMAIN = "WheelOfFortune";
+
+    private final Map<String, PlayerMetrics> players = new ConcurrentHashMap<>();
+    private final LongAdder games = new LongAdder();
+    private final LongAdder guesses = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final long startNanos = System.nanoTime();
+    private final List<ObjectName> registered = new ArrayList<>();
+    private MBeanServer server;
+    private ScheduledExecutorService snapshots;
+
+    /**
+     * Returns the metrics of a player, creating them on first use.
+     *
+     * @param playerId the player id.
+     * @return the metrics shared by every game of that player.
+     */
+    public PlayerMetrics player(String playerId) {
+        PlayerMetrics metrics = players.get(playerId);
+        if (metrics == null) {
+            metrics = players.computeIfAbsent(playerId, id -> {
+                PlayerMetrics created = new PlayerMetrics(id);
+                register(created, "type=Player,name=" + ObjectName.quote(id));
+                return created;
+            });
+        }
+        return metrics;
+    }
+
+    /**
+     * Records a finished game.
+     *
+     * @param player the metrics of the player who played it.
+     * @param guessCount the number of guesses the game took.
+     * @param allocated bytes the game allocated on its thread, or a negative value if unknown.
+     */
+    public void recordGame(PlayerMetrics player, int guessCount, long allocated) {
+        player.recordGame();
+        games.increment();
+        guesses.add(guessCount);
+        if (allocated > 0) {
+            allocatedBytes.add(allocated);
+        }
+    }
+
+    /**
+     * Records a batch of games whose guesses were not timed, e.g. a harness task.
+     *
+     * @param player the metrics of the player who played them.
+     * @param gameCount the number of games.
+     * @param guessCount the number of guesses the games took between them.
+     * @param allocated bytes the games allocated on their thread, or a negative value if unknown.
+     */
+    public void recordGames(PlayerMetrics player, int gameCount, long guessCount, long allocated) {
+        player.recordGames(gameCount, guessCount);
+        games.add(gameCount);
+        guesses.add(guessCount);
+        if (allocated > 0) {
+            allocatedBytes.add(allocated);
+        }
+    }
+
+    // Bytes allocated so far by the current thread, or -1 if the JVM cannot tell
+    static long currentThreadAllocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    @Override
+    public long getGames() {
+        return games.sum();
+    }
+
+    @Override
+    public long getGuesses() {
+        return guesses.sum();
+    }
+
+    @Override
+    public double getGamesPerSecond() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds == 0 ? 0.0 : games.sum() / seconds;
+    }
+
+    @Override
+    public double getGuessesPerGame() {
+        long count = games.sum();
+        return count == 0 ? 0.0 : (double) guesses.sum() / count;
+    }
+
+    @Override
+    public double getAllocatedBytesPerGame() {
+        long count = games.sum();
+        return count == 0 ? 0.0 : (double) allocatedBytes.sum() / count;
+    }
+
+    /**
+     * Registers these metrics and every player's, present and future, with the platform MBean server.
+     *
+     * @throws JMException if the beans cannot be registered, e.g. because another instance already is.
+     */
+    public synchronized void registerMBeans() throws JMException {
+        server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(DOMAIN + ":type=Games");
+        server.registerMBean(this, name);
+        registered.add(name);
+        for (PlayerMetrics metrics : players.values()) {
+            register(metrics, "type=Player,name=" + ObjectName.quote(metrics.getPlayerId()));
+        }
+    }
+
+    // A player that cannot be registered is still measured; it is just not visible over JMX
+    private synchronized void register(PlayerMetrics metrics, String properties) {
+        if (server == null) {
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+                registered.add(name);
+            }
+        } catch (JMException e) {
+            System.err.println("Could not register metrics for " + metrics.getPlayerId() + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void writeSnapshot(String file) throws IOException {
+        writeSnapshot(Paths.get(file));
+    }
+
+    /**
+     * Writes the current numbers to a text file, replacing the previous snapshot whole,
+     * so a monitoring tool polling the file never reads a partial one.
+     *
+     * @param file the snapshot file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeSnapshot(Path file) throws IOException {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("games=%d guesses=%d gamesPerSecond=%.1f guessesPerGame=%.2f allocatedBytesPerGame=%.1f%n",
+                getGames(), getGuesses(), getGamesPerSecond(), getGuessesPerGame(), getAllocatedBytesPerGame()));
+        List<PlayerMetrics> sorted = new ArrayList<>(players.values());
+        sorted.sort((a, b) -> a.getPlayerId().compareTo(b.getPlayerId()));
+        for (PlayerMetrics metrics : sorted) {
+            text.append(String.format("player=%s games=%d guessesPerGame=%.2f guessNanos mean=%.1f p50=%d p90=%d p99=%d p99.9=%d max=%d%n",
+                    metrics.getPlayerId(), metrics.getGames(), metrics.getGuessesPerGame(), metrics.getMeanGuessNanos(),
+                    metrics.getGuessNanosP50(), metrics.getGuessNanosP90(), metrics.getGuessNanosP99(),
+                    metrics.getGuessNanosP999(), metrics.getMaxGuessNanos()));
+        }
+        AtomicFiles.write(file, ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Writes a snapshot every period from a daemon thread until close() is called.
+     *
+     * @param file the snapshot file, replaced on every write.
+     * @param periodMillis the time between snapshots.
+     */
+    public synchronized void startSnapshots(Path file, long periodMillis) {
+        if (snapshots != null) {
+            throw new IllegalStateException("Snapshots are already being written");
+        }
+        snapshots = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "game-metrics-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshots.scheduleAtFixedRate(() -> {
+            try {
+                writeSnapshot(file);
+            } catch (IOException e) {
+                System.err.println("Could not write metrics snapshot: " + e.getMessage());
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops periodic snapshots and unregisters the MBeans.
+     */
+    @Override
+    public synchronized void close() {
+        if (snapshots != null) {
+            snapshots.shutdownNow();
+            snapshots = null;
+        }
+        for (ObjectName name : registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                // Already gone
+            }
+        }
+        registered.clear();
+        server = null;
+    }
+}
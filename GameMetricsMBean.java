@@ -0,0 +1,18 @@
+import java.io.IOException;
+
+/**
+ * JMX view of the totals across all players.
+ */
+public interface GameMetricsMBean {
+    long getGames();
+
+    long getGuesses();
+
+    double getGamesPerSecond();
+
+    double getGuessesPerGame();
+
+    double getAllocatedBytesPerGame();
+
+    void writeSnapshot(String file) throws IOException;
+}
@@ -0,0 +1,29 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * A game type the GameHarness can run, discovered with ServiceLoader from
+ * META-INF/services/GameProvider. A provider builds one Game per harness task; the
+ * harness then only calls Game.playAll, so a new game type gets the parallel scheduler,
+ * result aggregation and metrics by adding a provider.
+ */
+public interface GameProvider {
+    // Name used for the game in a run spec, e.g. "wheel"
+    String name();
+
+    // The interface the game's players implement; the spec's players default to every strategy of this type
+    Class<?> playerType();
+
+    /**
+     * Creates the game for one task. Tasks split the game's work into shards, e.g. ranges
+     * of phrases or secrets; a provider that cannot split plays everything in shard 0 and
+     * nothing in the others.
+     *
+     * @param context the run, giving access to its spec, shared corpus and player providers.
+     * @param player the name of the player strategy to play with.
+     * @param shard which part of the game's work this task plays, from 0.
+     * @param shardCount how many parts the work is split into.
+     * @param random a generator for this task only.
+     * @return a game ready for playAll().
+     */
+    Game newGame(GameRunContext context, String player, int shard, int shardCount, RandomGenerator random);
+}
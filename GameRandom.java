@@ -0,0 +1,46 @@
+import java.util.SplittableRandom;
+
+/**
+ * Source of random generators for games played in parallel. It is seeded once per run,
+ * and every (player, phrase) game gets its own SplittableRandom derived only from that
+ * seed and the game's indexes. Which thread plays a game, and in which order, has no
+ * effect on its random choices, so a parallel run repeats the sequential one exactly
+ * and no generator is ever shared between threads.
+ */
+public class GameRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+
+    /**
+     * Creates a provider for one run.
+     *
+     * @param seed the run seed every per-game generator is derived from.
+     */
+    public GameRandom(long seed) {
+        this.seed = seed;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * Returns a fresh generator for one game. The same indexes always give the same sequence.
+     *
+     * @param playerIndex the index of the player in the run.
+     * @param phraseIndex the index of the phrase in the corpus.
+     * @return a generator owned by the caller.
+     */
+    public SplittableRandom forGame(int playerIndex, int phraseIndex) {
+        long playerSeed = mix(seed + (playerIndex + 1L) * GOLDEN_GAMMA);
+        return new SplittableRandom(mix(playerSeed + (phraseIndex + 1L) * GOLDEN_GAMMA));
+    }
+
+    // SplitMix64 finalizer so neighbouring indexes get unrelated seeds
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
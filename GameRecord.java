@@ -1,10 +1,17 @@
 public class GameRecord implements Comparable<GameRecord> {
     private int score;
     private String playerId;
+    private int guessCount;
 
     public GameRecord(int score, String playerId) {
+        this(score, playerId, 0);
+    }
+
+    // guessCount is how many guesses the game took, 0 where a game does not count them
+    public GameRecord(int score, String playerId, int guessCount) {
         this.score = score;
         this.playerId = playerId;
+        this.guessCount = guessCount;
     }
 
     public int getScore() {
@@ -15,6 +22,10 @@ public class GameRecord implements Comparable<GameRecord> {
         return playerId;
     }
 
+    public int getGuessCount() {
+        return guessCount;
+    }
+
     @Override
     public int compareTo(GameRecord other) {
         return Integer.compare(this.score, other.score);
@@ -0,0 +1,118 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Check that streaming the AI game is lazy: pulling N records from stream(), or
+ * requesting N from its publisher, plays exactly N games, however many phrases the game
+ * has. Also checks that a full stream gives the same totals as playAll. Exits with
+ * status 1 on failure.
+ */
+public class GameRecordBackpressureCheck {
+    public static void main(String[] args) throws InterruptedException {
+        int phraseCount = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        List<String> phrases = new ArrayList<>();
+        for (int i = 0; i < phraseCount; i++) {
+            phrases.add("phrase " + Integer.toString(i, 26 + 10).replace('0', 'z') + " of the check");
+        }
+        List<String> failures = new ArrayList<>();
+
+        CountingGame game = new CountingGame(phrases);
+        Iterator<GameRecord> iterator = game.stream().iterator();
+        iterator.next();
+        check(failures, game.played.get() == 1, "pulling 1 record from stream() played " + game.played + " games");
+
+        game = new CountingGame(phrases);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        LimitedSubscriber subscriber = new LimitedSubscriber(1);
+        game.publisher(executor).subscribe(subscriber);
+        subscriber.received.await();
+        subscriber.request(100);
+        subscriber.received.await();
+        subscriber.subscription.cancel();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        check(failures, game.played.get() == 101, "requesting 101 records played " + game.played + " games");
+
+        game = new CountingGame(phrases);
+        long[] streamed = new long[2];
+        game.stream().forEach(record -> {
+            streamed[0]++;
+            streamed[1] += record.getScore();
+        });
+        AllGamesRecord all = new CountingGame(phrases).playAll();
+        check(failures, streamed[0] == all.size() && streamed[1] == all.totalScore(),
+                "stream() gave " + streamed[0] + " games totalling " + streamed[1] + ", playAll "
+                        + all.size() + " totalling " + all.totalScore());
+
+        if (!failures.isEmpty()) {
+            System.out.println("FAILED: " + failures);
+            System.exit(1);
+        }
+        System.out.println("OK: streaming " + phraseCount + " phrases plays one game per record pulled");
+    }
+
+    private static void check(List<String> failures, boolean condition, String message) {
+        if (!condition) {
+            failures.add(message);
+        }
+    }
+
+    // Counts every game it simulates
+    private static class CountingGame extends WheelOfFortuneAIGame {
+        final AtomicInteger played = new AtomicInteger();
+
+        CountingGame(List<String> phrases) {
+            super(phrases, Arrays.asList(new Random3Guesser(), new FrequencyGuesser(new PhrasePatternIndex(phrases))));
+            setListener(new SilentGameListener());
+        }
+
+        @Override
+        protected GameRecord play(WheelOfFortunePlayer player, CompiledPhrase phrase) {
+            played.incrementAndGet();
+            return super.play(player, phrase);
+        }
+    }
+
+    // Requests a given number of records at a time and signals when they have all arrived
+    private static class LimitedSubscriber implements Flow.Subscriber<GameRecord> {
+        volatile Flow.Subscription subscription;
+        volatile CountDownLatch received;
+
+        LimitedSubscriber(int first) {
+            this.received = new CountDownLatch(first);
+        }
+
+        void request(int n) {
+            received = new CountDownLatch(n);
+            subscription.request(n);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(received.getCount());
+        }
+
+        @Override
+        public void onNext(GameRecord record) {
+            received.countDown();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            throwable.printStackTrace();
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,331 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only binary history of game results. Each result is a fixed-width entry of
+ * (player ordinal, score, game type ordinal, timestamp, checksum); player ids and game
+ * type names are interned into a companion ".names" file with one name per line.
+ *
+ * Entries are collected in a direct buffer and written with FileChannel a batch at a
+ * time, and the log is forced to disk every few batches or on sync()/close(). New names
+ * are forced before any batch that uses them is written. A crash can tear or lose any
+ * entry written since the last sync, not only the last one. Opening the log checks all
+ * of them and cuts the log at the first entry whose checksum or names are bad, and drops
+ * a partial last line of the names file. load() stops at a bad entry as well.
+ */
+public class GameRecordLog implements AutoCloseable {
+    private static final int ENTRY_SIZE = 24;
+    private static final int BATCH_ENTRIES = 4096;
+    private static final int BATCHES_PER_SYNC = 16;
+    // The most entries that can be written but not yet forced: the sync window
+    private static final int UNSYNCED_ENTRIES = BATCH_ENTRIES * BATCHES_PER_SYNC;
+    private static final int READ_BUFFER_SIZE = ENTRY_SIZE * 64 * 1024;
+
+    private final Path logFile;
+    private final Path namesFile;
+    private FileChannel log;
+    private final FileChannel names;
+    private final List<String> nameList = new ArrayList<>();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final ByteBuffer batch = ByteBuffer.allocateDirect(ENTRY_SIZE * BATCH_ENTRIES);
+    private int unsyncedBatches;
+    private boolean namesDirty;
+
+    /**
+     * Opens a log, creating it if needed and repairing a torn tail left by a crash.
+     *
+     * @param logFile the log file; names are kept next to it with a ".names" suffix.
+     * @throws IOException if the files cannot be opened or repaired.
+     */
+    public GameRecordLog(Path logFile) throws IOException {
+        this.logFile = logFile;
+        this.namesFile = Paths.get(logFile + ".names");
+        this.names = FileChannel.open(namesFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.log = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            loadNames();
+            repairTail();
+        } catch (IOException | RuntimeException e) {
+            if (log != null) {
+                log.close();
+            }
+            names.close();
+            throw e;
+        }
+    }
+
+    // Reads the interned names, cutting off a line that was only partly written
+    private void loadNames() throws IOException {
+        byte[] bytes = Files.readAllBytes(namesFile);
+        int lineStart = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                String name = new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8);
+                ordinals.put(name, nameList.size());
+                nameList.add(name);
+                lineStart = i + 1;
+            }
+        }
+        names.truncate(lineStart);
+        names.position(lineStart);
+    }
+
+    // Everything since the last sync can be torn or missing, in any order, so the whole sync
+    // window is checked; the log is cut at the first bad entry
+    private void repairTail() throws IOException {
+        long entries = log.size() / ENTRY_SIZE;
+        long first = Math.max(0, entries - UNSYNCED_ENTRIES);
+        ByteBuffer tail = ByteBuffer.allocate((int) (entries - first) * ENTRY_SIZE);
+        while (tail.hasRemaining() && log.read(tail, first * ENTRY_SIZE + tail.position()) >= 0) {
+            // Keep reading until the tail is full
+        }
+        tail.flip();
+        long valid = first;
+        while (tail.remaining() >= ENTRY_SIZE && isValid(tail)) {
+            tail.position(tail.position() + ENTRY_SIZE);
+            valid++;
+        }
+        log.truncate(valid * ENTRY_SIZE);
+        log.position(valid * ENTRY_SIZE);
+    }
+
+    private boolean isValid(ByteBuffer buffer) {
+        int at = buffer.position();
+        int player = buffer.getInt(at);
+        int score = buffer.getInt(at + 4);
+        int gameType = buffer.getInt(at + 8);
+        long timestamp = buffer.getLong(at + 12);
+        return buffer.getInt(at + 20) == checksum(player, score, gameType, timestamp)
+                && player >= 0 && player < nameList.size() && gameType >= 0 && gameType < nameList.size();
+    }
+
+    // Non-zero even for an all-zero entry, so zero-filled torn pages never pass
+    private static int checksum(int player, int score, int gameType, long timestamp) {
+        int h = player * 0x9E3779B1 ^ score * 0x85EBCA6B ^ gameType * 0xC2B2AE35
+                ^ (int) timestamp ^ (int) (timestamp >>> 32) * 0x27D4EB2F;
+        h ^= h >>> 16;
+        return h ^ 0x5BD1E995;
+    }
+
+    /**
+     * Appends a result. It is written with the current batch and durable after the next sync.
+     *
+     * @param gameType the kind of game, e.g. "WheelOfFortune".
+     * @param record the result to store.
+     * @throws IOException if a full batch cannot be written.
+     */
+    public void append(String gameType, GameRecord record) throws IOException {
+        append(gameType, record.getScore(), record.getPlayerId(), System.currentTimeMillis());
+    }
+
+    public void append(String gameType, int score, String playerId, long timestamp) throws IOException {
+        int player = ordinal(playerId);
+        int type = ordinal(gameType);
+        batch.putInt(player).putInt(score).putInt(type).putLong(timestamp)
+                .putInt(checksum(player, score, type, timestamp));
+        if (!batch.hasRemaining()) {
+            writeBatch();
+            if (++unsyncedBatches >= BATCHES_PER_SYNC) {
+                sync();
+            }
+        }
+    }
+
+    // Appends all records of an AllGamesRecord with the same game type and timestamp
+    public void appendAll(String gameType, AllGamesRecord records) throws IOException {
+        long timestamp = System.currentTimeMillis();
+        for (int i = 0; i < records.size(); i++) {
+            GameRecord record = records.get(i);
+            append(gameType, record.getScore(), record.getPlayerId(), timestamp);
+        }
+    }
+
+    private int ordinal(String name) throws IOException {
+        Integer ordinal = ordinals.get(name);
+        if (ordinal == null) {
+            ordinal = nameList.size();
+            ordinals.put(name, ordinal);
+            nameList.add(name);
+            ByteBuffer line = ByteBuffer.wrap((name + "\n").getBytes(StandardCharsets.UTF_8));
+            while (line.hasRemaining()) {
+                names.write(line);
+            }
+            namesDirty = true;
+        }
+        return ordinal;
+    }
+
+    private void writeBatch() throws IOException {
+        if (namesDirty && batch.position() > 0) {
+            // The entries may reach the disk as soon as they are written, so their names go first
+            names.force(false);
+            namesDirty = false;
+        }
+        batch.flip();
+        while (batch.hasRemaining()) {
+            log.write(batch);
+        }
+        batch.clear();
+    }
+
+    /**
+     * Writes any pending entries and forces both files to disk, names first so that no
+     * durable entry refers to a name that is not.
+     *
+     * @throws IOException if writing or forcing fails.
+     */
+    public void sync() throws IOException {
+        writeBatch();
+        if (namesDirty) {
+            names.force(false);
+            namesDirty = false;
+        }
+        log.force(false);
+        unsyncedBatches = 0;
+    }
+
+    /**
+     * Reads every stored result back into an AllGamesRecord.
+     *
+     * @return the records in the order they were appended.
+     * @throws IOException if the log cannot be read.
+     */
+    public AllGamesRecord load() throws IOException {
+        return load(null);
+    }
+
+    /**
+     * Reads the stored results of one game type back into an AllGamesRecord.
+     *
+     * @param gameType the game type to keep, or null for all.
+     * @return the records in the order they were appended.
+     * @throws IOException if the log cannot be read.
+     */
+    public AllGamesRecord load(String gameType) throws IOException {
+        writeBatch();
+        AllGamesRecord records = new AllGamesRecord();
+        Integer wanted = gameType == null ? null : ordinals.get(gameType);
+        if (gameType != null && wanted == null) {
+            return records;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        long position = 0;
+        long end = log.size();
+        while (position < end) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - position));
+            while (buffer.hasRemaining() && log.read(buffer, position + buffer.position()) >= 0) {
+                // Fill the buffer
+            }
+            buffer.flip();
+            position += buffer.limit();
+            for (; buffer.remaining() >= ENTRY_SIZE; buffer.position(buffer.position() + ENTRY_SIZE)) {
+                if (!isValid(buffer)) {
+                    // Damaged after the log was opened; nothing past it can be trusted
+                    return records;
+                }
+                int type = buffer.getInt(buffer.position() + 8);
+                if (wanted == null || type == wanted) {
+                    records.add(buffer.getInt(buffer.position() + 4), nameList.get(buffer.getInt(buffer.position())));
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Rewrites the log without entries older than a cutoff. The new log is written
+     * beside the old one and moved over it atomically; names keep their ordinals.
+     *
+     * @param keepFromTimestamp entries with an earlier timestamp are dropped.
+     * @return the number of entries kept.
+     * @throws IOException if the log cannot be rewritten.
+     */
+    public long compact(long keepFromTimestamp) throws IOException {
+        sync();
+        Path compacted = Paths.get(logFile + ".compact");
+        long kept = 0;
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer in = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+            ByteBuffer keep = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+            long position = 0;
+            long end = log.size();
+            while (position < end) {
+                in.clear();
+                in.limit((int) Math.min(in.capacity(), end - position));
+                while (in.hasRemaining() && log.read(in, position + in.position()) >= 0) {
+                    // Fill the buffer
+                }
+                in.flip();
+                position += in.limit();
+                keep.clear();
+                for (int at = 0; at + ENTRY_SIZE <= in.limit(); at += ENTRY_SIZE) {
+                    if (in.getLong(at + 12) >= keepFromTimestamp) {
+                        keep.put(keep.position(), in, at, ENTRY_SIZE);
+                        keep.position(keep.position() + ENTRY_SIZE);
+                        kept++;
+                    }
+                }
+                keep.flip();
+                while (keep.hasRemaining()) {
+                    out.write(keep);
+                }
+            }
+            out.force(false);
+        }
+        Files.move(compacted, logFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        log.close();
+        log = FileChannel.open(logFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        log.position(log.size());
+        return kept;
+    }
+
+    /**
+     * Writes and forces any pending entries, then closes the files.
+     *
+     * @throws IOException if the final sync fails.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            log.close();
+            names.close();
+        }
+    }
+
+    /**
+     * Prints the leaderboards stored in a log without replaying any games.
+     *
+     * @param args the log file, and optionally a game type to filter on.
+     * @throws IOException if the log cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java GameRecordLog <log file> [game type]");
+            return;
+        }
+        try (GameRecordLog log = new GameRecordLog(Paths.get(args[0]))) {
+            long start = System.nanoTime();
+            AllGamesRecord records = log.load(args.length > 1 ? args[1] : null);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("Loaded " + records.size() + " records in " + millis + " ms");
+            System.out.println("The Average Score of All Games: " + records.average());
+            System.out.println("High Scores: " + records.highGameList(5));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the heap used by a plain List of GameRecord objects with the columnar
+ * AllGamesRecord for the same results. Run with a large heap, for example:
+ * java -Xmx4g GameRecordMemoryBenchmark 10000000
+ */
+public class GameRecordMemoryBenchmark {
+    private static final String[] PLAYER_IDS = {"DumbGuesser", "SmartGuesser", "SmarterGuesser"};
+
+    public static void main(String[] args) {
+        int recordCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+
+        long before = usedHeap();
+        long start = System.nanoTime();
+        List<GameRecord> objectRecords = new ArrayList<>();
+        for (int i = 0; i < recordCount; i++) {
+            objectRecords.add(new GameRecord(score(i), PLAYER_IDS[i % PLAYER_IDS.length]));
+        }
+        long objectMillis = (System.nanoTime() - start) / 1_000_000;
+        long objectBytes = usedHeap() - before;
+        System.out.println("List<GameRecord>: " + objectRecords.size() + " records");
+        objectRecords = null;
+
+        before = usedHeap();
+        start = System.nanoTime();
+        AllGamesRecord columnarRecords = new AllGamesRecord();
+        for (int i = 0; i < recordCount; i++) {
+            columnarRecords.add(score(i), PLAYER_IDS[i % PLAYER_IDS.length]);
+        }
+        long columnarMillis = (System.nanoTime() - start) / 1_000_000;
+        long columnarBytes = usedHeap() - before;
+        System.out.println("AllGamesRecord: " + columnarRecords.size() + " records");
+
+        report("List<GameRecord>", objectBytes, objectMillis, recordCount);
+        report("AllGamesRecord (columnar)", columnarBytes, columnarMillis, recordCount);
+    }
+
+    private static int score(int i) {
+        return 100 - (i * 31 % 26);
+    }
+
+    private static void report(String layout, long bytes, long millis, int recordCount) {
+        System.out.printf("%-28s %,14d bytes  %6.1f bytes/record  %,6d ms to fill%n",
+                layout, bytes, (double) bytes / recordCount, millis);
+    }
+
+    // Best-effort measurement: ask for a few collections before reading the heap
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,96 @@
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Publishes a lazy stream of GameRecords to a single Flow subscriber. Records are only
+ * pulled from the stream, and so games only played, while the subscriber has outstanding
+ * demand, which gives natural backpressure and keeps memory constant however long it runs.
+ */
+public class GameRecordPublisher implements Flow.Publisher<GameRecord> {
+    private final Stream<GameRecord> records;
+    private final Executor executor;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Creates a publisher.
+     *
+     * @param records the records to publish; games are played as they are pulled.
+     * @param executor where records are produced and delivered.
+     */
+    public GameRecordPublisher(Stream<GameRecord> records, Executor executor) {
+        this.records = records;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super GameRecord> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            // A game stream can only be played once
+            subscriber.onSubscribe(new GameSubscription(subscriber, null));
+            subscriber.onError(new IllegalStateException("This publisher already has a subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new GameSubscription(subscriber, records.iterator()));
+    }
+
+    private class GameSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super GameRecord> subscriber;
+        private final Iterator<GameRecord> iterator;
+        private final AtomicLong demand = new AtomicLong();
+        private volatile boolean cancelled;
+
+        GameSubscription(Flow.Subscriber<? super GameRecord> subscriber, Iterator<GameRecord> iterator) {
+            this.subscriber = subscriber;
+            this.iterator = iterator;
+            this.cancelled = iterator == null;
+        }
+
+        @Override
+        public void request(long n) {
+            if (cancelled) {
+                return;
+            }
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Requested " + n + " records; must be positive"));
+                return;
+            }
+            // Only the request that raises demand from zero starts a delivery run
+            long previous = demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            if (previous == 0) {
+                executor.execute(this::deliver);
+            }
+        }
+
+        private void deliver() {
+            try {
+                long pending = demand.get();
+                while (pending > 0 && !cancelled) {
+                    long sent = 0;
+                    while (sent < pending && !cancelled) {
+                        if (!iterator.hasNext()) {
+                            cancelled = true;
+                            subscriber.onComplete();
+                            return;
+                        }
+                        subscriber.onNext(iterator.next());
+                        sent++;
+                    }
+                    pending = demand.addAndGet(-sent);
+                }
+            } catch (RuntimeException e) {
+                cancelled = true;
+                subscriber.onError(e);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
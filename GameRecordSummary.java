@@ -0,0 +1,198 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Incremental, constant-memory aggregate of a stream of GameRecords: per-player counts
+ * and score totals plus a bounded list of high games per player. It can consume a Stream
+ * directly or subscribe to a Flow publisher, requesting records in small batches.
+ */
+public class GameRecordSummary implements Consumer<GameRecord>, Flow.Subscriber<GameRecord> {
+    private static final int REQUEST_BATCH = 256;
+
+    private final int topCapacity;
+    private final Map<String, PlayerSummary> players = new HashMap<>();
+    private final CountDownLatch done = new CountDownLatch(1);
+    private long count;
+    private long totalScore;
+    private Flow.Subscription subscription;
+    private int receivedInBatch;
+    private volatile Throwable failure;
+
+    /**
+     * Creates a summary keeping up to topCapacity high games per player.
+     *
+     * @param topCapacity the largest n highGameList can answer.
+     */
+    public GameRecordSummary(int topCapacity) {
+        this.topCapacity = topCapacity;
+    }
+
+    @Override
+    public synchronized void accept(GameRecord record) {
+        count++;
+        totalScore += record.getScore();
+        players.computeIfAbsent(record.getPlayerId(), id -> new PlayerSummary(topCapacity)).add(record);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(REQUEST_BATCH);
+    }
+
+    @Override
+    public void onNext(GameRecord record) {
+        accept(record);
+        // Ask for the next batch once this one has been used up
+        if (++receivedInBatch == REQUEST_BATCH) {
+            receivedInBatch = 0;
+            subscription.request(REQUEST_BATCH);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        failure = throwable;
+        done.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+        done.countDown();
+    }
+
+    /**
+     * Waits until the publisher has completed or failed.
+     *
+     * @throws InterruptedException if interrupted while waiting.
+     * @throws IllegalStateException if the publisher failed.
+     */
+    public void await() throws InterruptedException {
+        done.await();
+        if (failure != null) {
+            throw new IllegalStateException("Game stream failed", failure);
+        }
+    }
+
+    public synchronized long count() {
+        return count;
+    }
+
+    public synchronized double average() {
+        return count == 0 ? 0.0 : (double) totalScore / count;
+    }
+
+    public synchronized double average(String playerId) {
+        PlayerSummary player = players.get(playerId);
+        return player == null ? 0.0 : (double) player.totalScore / player.count;
+    }
+
+    // Answers at most the topCapacity given at construction
+    public synchronized List<GameRecord> highGameList(String playerId, int n) {
+        PlayerSummary player = players.get(playerId);
+        List<GameRecord> top = new ArrayList<>();
+        for (int i = 0; player != null && i < Math.min(n, player.highCount); i++) {
+            top.add(player.high[i]);
+        }
+        return top;
+    }
+
+    // Totals and a sorted, bounded high score list for one player
+    private static class PlayerSummary {
+        private long count;
+        private long totalScore;
+        private GameRecord[] high;
+        private int highCount;
+
+        PlayerSummary(int topCapacity) {
+            this.high = new GameRecord[topCapacity];
+        }
+
+        void add(GameRecord record) {
+            count++;
+            totalScore += record.getScore();
+            // Equal scores keep their arrival order
+            int slot = highCount;
+            while (slot > 0 && high[slot - 1].getScore() < record.getScore()) {
+                slot--;
+            }
+            if (slot >= high.length) {
+                return;
+            }
+            int moved = Math.min(highCount, high.length - 1) - slot;
+            System.arraycopy(high, slot, high, slot + 1, moved);
+            high[slot] = record;
+            highCount = Math.min(highCount + 1, high.length);
+        }
+    }
+
+    // Plays passes over a game one after another; the next pass's stream is only opened
+    // once the previous one has run out, so no pass is played ahead of demand
+    private static class Passes extends Spliterators.AbstractSpliterator<GameRecord> {
+        private final Game game;
+        private long remaining;
+        private Spliterator<GameRecord> pass = Spliterators.emptySpliterator();
+
+        Passes(Game game, long passes) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.game = game;
+            this.remaining = passes;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super GameRecord> action) {
+            if (pass.tryAdvance(action)) {
+                return true;
+            }
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            pass = game.stream().spliterator();
+            return pass.tryAdvance(action); // A game without records ends the run instead of looping
+        }
+    }
+
+    /**
+     * Soak test: replays the AI game over and over through a Flow publisher and prints
+     * running averages, using constant memory however many games are played.
+     *
+     * @param args number of passes over the phrase corpus, or "forever".
+     * @throws InterruptedException if interrupted while waiting for the run to finish.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        WheelOfFortuneAIGame game = new WheelOfFortuneAIGame();
+        game.setListener(new SilentGameListener());
+        long passes = args.length > 0 && args[0].equals("forever") ? Long.MAX_VALUE
+                : args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        Stream<GameRecord> records = StreamSupport.stream(new Passes(game, passes), false);
+
+        GameRecordSummary summary = new GameRecordSummary(3);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            new GameRecordPublisher(records, executor).subscribe(summary);
+            while (!summary.done.await(1, TimeUnit.SECONDS)) {
+                System.out.println(summary.count() + " games, average score " + summary.average());
+            }
+            summary.await();
+        } finally {
+            executor.shutdown();
+        }
+        System.out.println("Finished " + summary.count() + " games, average score " + summary.average());
+        for (String playerId : summary.players.keySet()) {
+            System.out.println(playerId + ": " + summary.average(playerId) + " " + summary.highGameList(playerId, 3));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * The game types and player strategies found on the class path through ServiceLoader.
+ */
+public class GameRegistry {
+    private final Map<String, GameProvider> games = new LinkedHashMap<>();
+    private final List<PlayerProvider<?>> players = new ArrayList<>();
+
+    /**
+     * Discovers every GameProvider and PlayerProvider listed under META-INF/services.
+     *
+     * @return the registry.
+     */
+    public static GameRegistry load() {
+        GameRegistry registry = new GameRegistry();
+        for (GameProvider provider : ServiceLoader.load(GameProvider.class)) {
+            registry.games.put(provider.name(), provider);
+        }
+        for (PlayerProvider<?> provider : ServiceLoader.load(PlayerProvider.class)) {
+            registry.players.add(provider);
+        }
+        return registry;
+    }
+
+    public Set<String> gameNames() {
+        return games.keySet();
+    }
+
+    public GameProvider game(String name) {
+        GameProvider provider = games.get(name);
+        if (provider == null) {
+            throw new IllegalArgumentException("Unknown game: " + name + ", known games: " + games.keySet());
+        }
+        return provider;
+    }
+
+    // Every strategy for players of the given type, in discovery order
+    public List<String> playerNames(Class<?> type) {
+        List<String> names = new ArrayList<>();
+        for (PlayerProvider<?> provider : players) {
+            if (type.isAssignableFrom(provider.playerType())) {
+                names.addAll(provider.names());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Creates a player of the given strategy and type.
+     *
+     * @param name the strategy name.
+     * @param type the interface the game drives.
+     * @param context the run the player takes part in.
+     * @param random a generator for this player only.
+     * @param <P> the player interface.
+     * @return the new player.
+     * @throws IllegalArgumentException if no provider offers the strategy for that type.
+     */
+    public <P> P newPlayer(String name, Class<P> type, GameRunContext context, RandomGenerator random) {
+        for (PlayerProvider<?> provider : players) {
+            if (type.isAssignableFrom(provider.playerType()) && provider.names().contains(name)) {
+                return type.cast(provider.newPlayer(name, context, random));
+            }
+        }
+        throw new IllegalArgumentException("Unknown " + type.getSimpleName() + ": " + name
+                + ", known players: " + playerNames(type));
+    }
+}
@@ -0,0 +1,324 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Remembers the outcome of games played by deterministic players, keyed by the strategy,
+ * the corpus version and the phrase hash, so replaying a corpus against unchanged
+ * strategies does not simulate the games again.
+ *
+ * The strategy is identified by its player id and a CRC of its class file, so editing a
+ * guesser's class invalidates its results; changes to helper classes it uses are not
+ * detected. Recent results are held in size-bounded LRU maps. With a spill file,
+ * evicted results, and all of them on close(), go to a memory-mapped open-addressing
+ * table, where later runs of the program find them again.
+ *
+ * All methods are thread-safe. Keys are spread over stripes, each with its own LRU map,
+ * its own region of the spill table and its own lock, so tournament tasks looking up
+ * different phrases rarely wait on each other.
+ */
+public class GameResultCache implements AutoCloseable {
+    private static final int SLOT_SIZE = 32;
+    private static final int HEADER_SIZE = 16;
+    private static final long MAGIC = 0x574F465265733032L; // Format 2: the table is split into stripes
+    private static final int MAX_PROBES = 16;
+    // Header plus 2^25 32-byte slots is 2^30 + 16 bytes: one mapping, int offsets
+    private static final int MAX_SPILL_SLOTS = 1 << 25;
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final Map<Class<?>, Long> classHashes = new ConcurrentHashMap<>();
+    private final FileChannel spillChannel;
+    private final MappedByteBuffer spill;
+    private final int spillSlots;
+    private final int stripeSlots;
+
+    /**
+     * Creates a cache held in memory only.
+     *
+     * @param maxEntries the number of results kept before the least recently used is evicted.
+     */
+    public GameResultCache(int maxEntries) {
+        this.spillChannel = null;
+        this.spill = null;
+        this.spillSlots = 0;
+        this.stripeSlots = 0;
+        createStripes(maxEntries);
+    }
+
+    /**
+     * Creates a cache that spills to a file, opening the results of earlier runs if it exists.
+     *
+     * @param maxEntries the number of results kept in memory.
+     * @param spillFile the table file; recreated if it was written with a different slot count.
+     * @param spillSlots the number of results the file holds, rounded up to a power of two,
+     *                   at least 16 and at most 2^25 (a 1 GB file).
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    public GameResultCache(int maxEntries, Path spillFile, int spillSlots) throws IOException {
+        this.spillSlots = Math.max(STRIPES,
+                Integer.highestOneBit(Math.max(1, Math.min(spillSlots, MAX_SPILL_SLOTS) - 1)) << 1);
+        this.stripeSlots = this.spillSlots / STRIPES;
+        this.spillChannel = FileChannel.open(spillFile, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = HEADER_SIZE + (long) this.spillSlots * SLOT_SIZE;
+        boolean compatible = spillChannel.size() == size;
+        if (!compatible) {
+            spillChannel.truncate(0);
+        }
+        this.spill = spillChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (!compatible || spill.getLong(0) != MAGIC) {
+            for (int i = 0; i < size; i += 8) {
+                spill.putLong(i, 0L);
+            }
+            spill.putLong(0, MAGIC);
+            spill.putLong(8, this.spillSlots);
+        }
+        createStripes(maxEntries);
+    }
+
+    private void createStripes(int maxEntries) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(i, Math.max(1, (maxEntries + STRIPES - 1) / STRIPES));
+        }
+    }
+
+    /**
+     * Returns the key of a player's strategy, or 0 if the player is not deterministic
+     * and its results must not be cached.
+     *
+     * @param player the player.
+     * @return the strategy key.
+     */
+    public long strategyKey(WheelOfFortunePlayer player) {
+        if (!player.isDeterministic()) {
+            return 0;
+        }
+        long classHash = classHashes.computeIfAbsent(player.getClass(), GameResultCache::classHash);
+        long key = mix(classHash * 31 + player.playerId().hashCode());
+        return key == 0 ? 1 : key; // 0 marks an empty spill slot
+    }
+
+    // CRC of the class file as loaded, or of the class name if the file cannot be read
+    private static long classHash(Class<?> type) {
+        CRC32C crc = new CRC32C();
+        String name = type.getName();
+        try (InputStream in = type.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class")) {
+            if (in != null) {
+                crc.update(in.readAllBytes());
+                return crc.getValue();
+            }
+        } catch (IOException e) {
+            // Fall back to the name
+        }
+        return name.hashCode();
+    }
+
+    /**
+     * Looks up a game result.
+     *
+     * @param strategy the strategy key, from strategyKey().
+     * @param corpusVersion the version of the corpus the phrase belongs to.
+     * @param phraseHash the hash of the phrase.
+     * @return the result packed as score in the high half and guess count in the low half,
+     *         or -1 if it is not cached.
+     */
+    public long lookup(long strategy, long corpusVersion, long phraseHash) {
+        Key key = new Key(strategy, corpusVersion, phraseHash);
+        return stripe(key).lookup(key);
+    }
+
+    // Remembers a simulated game; the least recently used result may be spilled to make room
+    public void store(long strategy, long corpusVersion, long phraseHash, int score, int guessCount) {
+        Key key = new Key(strategy, corpusVersion, phraseHash);
+        Stripe stripe = stripe(key);
+        synchronized (stripe) {
+            stripe.recent.put(key, pack(score, guessCount));
+        }
+    }
+
+    // The top bits pick the stripe; the low bits pick the home slot within its region
+    private Stripe stripe(Key key) {
+        return stripes[(int) (key.hashCode64() >>> 60)];
+    }
+
+    // Score in the high half, guess count in the low half, as lookup() returns them
+    public static long pack(int score, int guessCount) {
+        return (long) score << 32 | (guessCount & 0xFFFFFFFFL);
+    }
+
+    public static int score(long result) {
+        return (int) (result >> 32);
+    }
+
+    public static int guessCount(long result) {
+        return (int) result;
+    }
+
+    public long hits() {
+        long hits = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                hits += stripe.hits;
+            }
+        }
+        return hits;
+    }
+
+    public long misses() {
+        long misses = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                misses += stripe.misses;
+            }
+        }
+        return misses;
+    }
+
+    /**
+     * Writes every result held in memory to the spill file, if there is one, and closes it.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (spill == null) {
+            return;
+        }
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (Map.Entry<Key, Long> entry : stripe.recent.entrySet()) {
+                    stripe.spillOut(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        spill.force();
+        spillChannel.close();
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // One lock's worth of the cache: an LRU map and the region of the spill table its evictions go to
+    private class Stripe {
+        private final LinkedHashMap<Key, Long> recent;
+        private final int firstSlot;
+        private long hits;
+        private long misses;
+
+        Stripe(int index, int maxEntries) {
+            this.firstSlot = index * stripeSlots;
+            // Access-ordered map that hands its eldest entry to the spill table when it grows too large
+            this.recent = new LinkedHashMap<Key, Long>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Long> eldest) {
+                    if (size() <= maxEntries) {
+                        return false;
+                    }
+                    spillOut(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+            };
+        }
+
+        synchronized long lookup(Key key) {
+            Long result = recent.get(key);
+            if (result == null && spill != null) {
+                result = spillIn(key);
+                if (result != null) {
+                    recent.put(key, result);
+                }
+            }
+            if (result == null) {
+                misses++;
+                return -1;
+            }
+            hits++;
+            return result;
+        }
+
+        // Byte offset of a slot of this stripe's region; probes wrap around within the region
+        private int slotAt(int slot) {
+            return HEADER_SIZE + (firstSlot + (slot & (stripeSlots - 1))) * SLOT_SIZE;
+        }
+
+        // Linear probing from the key's home slot; past MAX_PROBES the home slot is overwritten
+        void spillOut(Key key, long result) {
+            if (spill == null) {
+                return;
+            }
+            int home = (int) key.hashCode64();
+            int target = home;
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int at = slotAt(home + probe);
+                long strategy = spill.getLong(at);
+                if (strategy == 0 || (strategy == key.strategy && spill.getLong(at + 8) == key.corpusVersion
+                        && spill.getLong(at + 16) == key.phraseHash)) {
+                    target = home + probe;
+                    break;
+                }
+            }
+            int at = slotAt(target);
+            spill.putLong(at, key.strategy);
+            spill.putLong(at + 8, key.corpusVersion);
+            spill.putLong(at + 16, key.phraseHash);
+            spill.putLong(at + 24, result);
+        }
+
+        private Long spillIn(Key key) {
+            int home = (int) key.hashCode64();
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int at = slotAt(home + probe);
+                long strategy = spill.getLong(at);
+                if (strategy == 0) {
+                    return null;
+                }
+                if (strategy == key.strategy && spill.getLong(at + 8) == key.corpusVersion
+                        && spill.getLong(at + 16) == key.phraseHash) {
+                    return spill.getLong(at + 24);
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class Key {
+        private final long strategy;
+        private final long corpusVersion;
+        private final long phraseHash;
+
+        Key(long strategy, long corpusVersion, long phraseHash) {
+            this.strategy = strategy;
+            this.corpusVersion = corpusVersion;
+            this.phraseHash = phraseHash;
+        }
+
+        long hashCode64() {
+            return mix(strategy ^ mix(corpusVersion ^ mix(phraseHash)));
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hashCode64());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return strategy == key.strategy && corpusVersion == key.corpusVersion && phraseHash == key.phraseHash;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Everything the tasks of one harness run share: the spec, the registry, the phrase
+ * corpus and any read-only state providers build once, like a pattern index or a
+ * decision tree. Safe to use from every task thread.
+ */
+public class GameRunContext {
+    private final GameRunSpec spec;
+    private final GameRegistry registry;
+    private final Map<String, Object> shared = new HashMap<>();
+
+    public GameRunContext(GameRunSpec spec, GameRegistry registry) {
+        this.spec = spec;
+        this.registry = registry;
+    }
+
+    public GameRunSpec spec() {
+        return spec;
+    }
+
+    /**
+     * Returns the value shared under a key, building it on first use. Other tasks asking
+     * for any shared value wait while one is built; a factory may itself ask for others.
+     *
+     * @param key the name of the value.
+     * @param factory builds the value, at most once per run.
+     * @param <T> the type of the value.
+     * @return the shared value.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T shared(String key, Supplier<T> factory) {
+        Object value = shared.get(key);
+        if (value == null) {
+            value = factory.get();
+            shared.put(key, value);
+        }
+        return (T) value;
+    }
+
+    // The spec's phrase corpus, mapped once per run, from its snapshot when there is one
+    public PhraseCorpus corpus() {
+        return shared("corpus", () -> {
+            try {
+                return CorpusSnapshot.open(Paths.get(spec.getCorpus()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read corpus " + spec.getCorpus(), e);
+            }
+        });
+    }
+
+    public <P> P newPlayer(String name, Class<P> type, RandomGenerator random) {
+        return registry.newPlayer(name, type, this, random);
+    }
+
+    public List<String> playerNames(Class<?> type) {
+        return registry.playerNames(type);
+    }
+}
@@ -0,0 +1,108 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What the GameHarness should run: a game type, the player strategies, the phrase corpus,
+ * how many repetitions, how many threads, a seed, and any game-specific options. Parsed
+ * from key=value arguments, e.g.
+ * game=wheel players=random2,frequency corpus=WOFPhrases.txt repetitions=10 parallelism=4
+ */
+public class GameRunSpec {
+    private final String game;
+    private final List<String> players;
+    private final String corpus;
+    private final int repetitions;
+    private final int parallelism;
+    private final long seed;
+    private final Map<String, String> options;
+
+    public GameRunSpec(String game, List<String> players, String corpus, int repetitions,
+                       int parallelism, long seed, Map<String, String> options) {
+        this.game = game;
+        this.players = players;
+        this.corpus = corpus;
+        this.repetitions = repetitions;
+        this.parallelism = parallelism;
+        this.seed = seed;
+        this.options = options;
+    }
+
+    /**
+     * Parses key=value arguments. Keys other than game, players, corpus, repetitions,
+     * parallelism and seed are kept as options for the game and player providers.
+     *
+     * @param args the arguments.
+     * @return the spec.
+     * @throws IllegalArgumentException if an argument is not key=value or game is missing.
+     */
+    public static GameRunSpec parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            values.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+        String game = values.remove("game");
+        if (game == null) {
+            throw new IllegalArgumentException("No game given, e.g. game=wheel");
+        }
+        String players = values.remove("players");
+        String corpus = values.remove("corpus");
+        String repetitions = values.remove("repetitions");
+        String parallelism = values.remove("parallelism");
+        String seed = values.remove("seed");
+        return new GameRunSpec(game,
+                players == null ? new ArrayList<>() : Arrays.asList(players.split(",")),
+                corpus == null ? "WOFPhrases.txt" : corpus,
+                repetitions == null ? 1 : Integer.parseInt(repetitions),
+                parallelism == null ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(parallelism),
+                seed == null ? System.nanoTime() : Long.parseLong(seed),
+                values);
+    }
+
+    public String getGame() {
+        return game;
+    }
+
+    // Empty when the spec leaves the choice of players to the game provider
+    public List<String> getPlayers() {
+        return players;
+    }
+
+    public String getCorpus() {
+        return corpus;
+    }
+
+    public int getRepetitions() {
+        return repetitions;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int option(String key, int defaultValue) {
+        String value = options.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    public String option(String key, String defaultValue) {
+        return options.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public String toString() {
+        return "game=" + game + " players=" + String.join(",", players) + " corpus=" + corpus
+                + " repetitions=" + repetitions + " parallelism=" + parallelism + " seed=" + seed
+                + (options.isEmpty() ? "" : " " + options);
+    }
+}
@@ -0,0 +1,56 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes the startup snapshots the launchers pick up: a CorpusSnapshot beside each phrase
+ * file, which WheelOfFortune, the harness and the server open instead of scanning the
+ * text, and a MastermindCodes snapshot per code space, which MastermindAIGame and the
+ * harness read instead of rebuilding the feedback table. A snapshot goes stale, and is
+ * ignored, as soon as its phrase file changes; run this again after editing one.
+ *
+ * Class loading is the other half of a short launch. An AppCDS archive lets the JVM map
+ * the game classes already parsed and verified. CDS only archives classes loaded from
+ * jar files, so package the classes first, then record an archive per launcher with a
+ * training run and start the launcher with it:
+ *
+ *   javac -d classes *.java
+ *   jar --create --file games.jar -C classes . META-INF
+ *   java -cp games.jar GameSnapshot
+ *   java -XX:ArchiveClassesAtExit=wof.jsa -cp games.jar WheelOfFortuneAIGame
+ *   java -XX:SharedArchiveFile=wof.jsa -cp games.jar WheelOfFortuneAIGame
+ *
+ * The same two steps work for WheelOfFortuneUserGame, Mastermind, MastermindAIGame and
+ * GameHarness. An archive is only used with the same JDK and the same class path, and
+ * has to be recorded again when games.jar is rebuilt. StartupBenchmark compares the
+ * launch time with and without both.
+ */
+public class GameSnapshot {
+    /**
+     * Writes snapshots.
+     *
+     * @param args phrase files and Mastermind code spaces written as colorsxlength, e.g.
+     *             WOFPhrases.txt 6x4; by default WOFPhrases.txt, 4x4 and 6x4, the spaces
+     *             MastermindAIGame and the harness use unless told otherwise.
+     * @throws IOException if a phrase file cannot be read or a snapshot cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        List<String> targets = args.length > 0 ? Arrays.asList(args) : Arrays.asList("WOFPhrases.txt", "4x4", "6x4");
+        for (String target : targets) {
+            if (target.matches("\\d+x\\d+")) {
+                int colorCount = Integer.parseInt(target.substring(0, target.indexOf('x')));
+                int codeLength = Integer.parseInt(target.substring(target.indexOf('x') + 1));
+                Path file = MastermindCodes.snapshotFile(colorCount, codeLength);
+                new MastermindCodes(colorCount, codeLength).write(file);
+                System.out.println("Wrote " + file);
+            } else {
+                Path file = Paths.get(target);
+                PhraseCorpus corpus = CorpusSnapshot.write(file);
+                System.out.println("Wrote " + CorpusSnapshot.snapshotFile(file) + " (" + corpus.size() + " phrases, "
+                        + corpus.patternIndex().patternCount() + " patterns)");
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+import java.util.Arrays;
+
+/**
+ * Knuth's minimax code-breaker. After each guess it keeps only the codes consistent
+ * with every feedback so far, then picks the code whose worst-case feedback leaves the
+ * fewest candidates, preferring codes that could still be the secret. Scoring uses the
+ * shared feedback table of MastermindCodes.
+ */
+public class KnuthSolver implements MastermindPlayer {
+    private final MastermindCodes codes;
+    private final int[] candidates;
+    private final boolean[] isCandidate;
+    private final int[] partitionSizes;
+    private final int firstGuess;
+    private int candidateCount;
+    private boolean firstTurn;
+
+    public KnuthSolver(MastermindCodes codes) {
+        this.codes = codes;
+        this.candidates = new int[codes.size()];
+        this.isCandidate = new boolean[codes.size()];
+        this.partitionSizes = new int[codes.feedbackCount()];
+        this.firstGuess = openingGuess(codes);
+        reset();
+    }
+
+    // Knuth's opening: the first half of the positions one color, the rest a second color (1122 for 4 positions)
+    private static int openingGuess(MastermindCodes codes) {
+        int guess = 0;
+        int secondColor = Math.min(1, codes.colorCount() - 1);
+        for (int position = codes.codeLength() - 1; position >= 0; position--) {
+            int color = position < codes.codeLength() / 2 ? 0 : secondColor;
+            guess = guess * codes.colorCount() + color;
+        }
+        return guess;
+    }
+
+    @Override
+    public int nextGuess() {
+        if (firstTurn) {
+            return firstGuess;
+        }
+        if (candidateCount <= 2) {
+            return candidates[0];
+        }
+
+        int bestGuess = candidates[0];
+        int bestWorstCase = Integer.MAX_VALUE;
+        boolean bestIsCandidate = true;
+        for (int guess = 0; guess < codes.size(); guess++) {
+            Arrays.fill(partitionSizes, 0);
+            int worstCase = 0;
+            for (int i = 0; i < candidateCount && worstCase <= bestWorstCase; i++) {
+                int size = ++partitionSizes[codes.feedback(guess, candidates[i])];
+                if (size > worstCase) {
+                    worstCase = size;
+                }
+            }
+            if (worstCase < bestWorstCase || (worstCase == bestWorstCase && !bestIsCandidate && isCandidate[guess])) {
+                bestGuess = guess;
+                bestWorstCase = worstCase;
+                bestIsCandidate = isCandidate[guess];
+            }
+        }
+        return bestGuess;
+    }
+
+    @Override
+    public void feedback(int guess, int feedback) {
+        firstTurn = false;
+        int kept = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int candidate = candidates[i];
+            if (codes.feedback(guess, candidate) == feedback) {
+                candidates[kept++] = candidate;
+            } else {
+                isCandidate[candidate] = false;
+            }
+        }
+        candidateCount = kept;
+    }
+
+    @Override
+    public String playerId() {
+        return "KnuthSolver";
+    }
+
+    @Override
+    public void reset() {
+        for (int code = 0; code < codes.size(); code++) {
+            candidates[code] = code;
+        }
+        Arrays.fill(isCandidate, true);
+        candidateCount = codes.size();
+        firstTurn = true;
+    }
+}
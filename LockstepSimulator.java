@@ -0,0 +1,101 @@
+import java.util.List;
+
+/**
+ * Plays every phrase of a batch against one fixed-order player at the same time. Such a
+ * player makes the same guesses in the same order in every game, so the guess sequence
+ * is asked for once and each guess is applied to all unfinished games in a single pass.
+ *
+ * Games are held as a structure of arrays: the letters each game still has to find, as
+ * 26-bit masks, next to the game's phrase index. Both arrays are compacted after every
+ * pass, so finished games drop out and the next pass reads only live games, front to
+ * back. A guess that no live game needs skips the pass altogether.
+ */
+public class LockstepSimulator {
+    private final int[] letterMasks;
+
+    /**
+     * Prepares a batch of phrases.
+     *
+     * @param phrases the phrases, played in this order.
+     */
+    public LockstepSimulator(List<String> phrases) {
+        this.letterMasks = new int[phrases.size()];
+        for (int i = 0; i < letterMasks.length; i++) {
+            letterMasks[i] = WheelOfFortune.letterMask(phrases.get(i));
+        }
+    }
+
+    // For callers that already hold each phrase's letter mask, e.g. from CompiledPhrase
+    LockstepSimulator(int[] letterMasks) {
+        this.letterMasks = letterMasks;
+    }
+
+    public int size() {
+        return letterMasks.length;
+    }
+
+    /**
+     * Works out how many guesses the player needs for every phrase.
+     *
+     * @param player a player whose isFixedOrder() is true; it is reset once, then asked
+     *               for guesses until every phrase is solved.
+     * @return the guess count of each phrase, in batch order.
+     */
+    public int[] guessCounts(WheelOfFortunePlayer player) {
+        if (!player.isFixedOrder()) {
+            throw new IllegalArgumentException(player.playerId() + " does not guess in a fixed order");
+        }
+        int[] guessCounts = new int[letterMasks.length];
+        int[] remaining = new int[letterMasks.length];
+        int[] games = new int[letterMasks.length];
+        int live = 0;
+        int needed = 0;
+        for (int i = 0; i < letterMasks.length; i++) {
+            if (letterMasks[i] != 0) {
+                remaining[live] = letterMasks[i];
+                games[live++] = i;
+                needed |= letterMasks[i];
+            }
+        }
+
+        player.reset();
+        int guesses = 0;
+        while (live > 0) {
+            int letter = WheelOfFortune.letterBit(player.nextGuess());
+            guesses++;
+            if ((needed & letter) == 0) {
+                continue;
+            }
+            int kept = 0;
+            needed = 0;
+            for (int k = 0; k < live; k++) {
+                int left = remaining[k] & ~letter;
+                if (left == 0) {
+                    guessCounts[games[k]] = guesses;
+                } else {
+                    remaining[kept] = left;
+                    games[kept++] = games[k];
+                    needed |= left;
+                }
+            }
+            live = kept;
+        }
+        return guessCounts;
+    }
+
+    /**
+     * Plays every phrase of the batch, scored like WheelOfFortuneAIGame.play.
+     *
+     * @param player a player whose isFixedOrder() is true.
+     * @return the player's records, in batch order.
+     */
+    public AllGamesRecord play(WheelOfFortunePlayer player) {
+        int[] guessCounts = guessCounts(player);
+        AllGamesRecord records = new AllGamesRecord();
+        String playerId = player.playerId();
+        for (int guessCount : guessCounts) {
+            records.add(100 - guessCount, playerId, guessCount);
+        }
+        return records;
+    }
+}
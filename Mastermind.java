@@ -10,20 +10,109 @@ import java.util.Scanner;
  * a color code sequence within a limited number of attempts.
  */
 public class Mastermind extends GuessingGame {
+    private static final int WRONG_LENGTH = -1;
+    private static final int UNKNOWN_COLOR = -2;
+
     private String code;
     private int codeLength;
     private List<String> colors = Arrays.asList("Red", "Blue", "Green", "Yellow");
+    // The code as packed color ordinals, position 0 in the lowest base-colors.size() digit
+    private int packedCode;
 
     /**
      * Constructs a Mastermind game instance with specified max attempts and code length.
      *
      * @param maxAttempts maximum number of attempts a player has to guess the code.
-     * @param codeLength the length of the color code.
+     * @param codeLength the length of the color code, from 1 to 15.
+     * @throws IllegalArgumentException if the code length is out of range.
      */
     public Mastermind(int maxAttempts, int codeLength) {
         super(maxAttempts);
-        this.codeLength = codeLength;
+        this.codeLength = checkCodeLength(codeLength);
         this.code = loadCode("Mastermind.txt"); // Load the code from the file
+        this.packedCode = packCode();
+    }
+
+    /**
+     * Constructs a Mastermind game instance with a fixed code instead of reading Mastermind.txt.
+     *
+     * @param maxAttempts maximum number of attempts a player has to guess the code.
+     * @param codeLength the length of the color code, from 1 to 15.
+     * @param code the code series to break, e.g. "R G Y B".
+     * @throws IllegalArgumentException if the code length is out of range.
+     */
+    public Mastermind(int maxAttempts, int codeLength, String code) {
+        super(maxAttempts);
+        this.codeLength = checkCodeLength(codeLength);
+        this.code = code;
+        this.packedCode = packCode();
+    }
+
+    // Codes are packed into an int and scored with MastermindCodes.feedback, which both need short codes
+    private static int checkCodeLength(int codeLength) {
+        if (codeLength < 1 || codeLength > MastermindCodes.MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("Code length must be from 1 to " + MastermindCodes.MAX_CODE_LENGTH
+                    + ", got " + codeLength);
+        }
+        return codeLength;
+    }
+
+    // Encodes the code once; a code that does not parse is replaced by the fallback code
+    private int packCode() {
+        int packed = parseCode(code);
+        if (packed < 0) {
+            System.err.println("Error: Invalid code series \"" + code + "\", using fallback code.");
+            code = generatebackCode();
+            packed = parseCode(code);
+        }
+        return packed;
+    }
+
+    /**
+     * Parses a code such as "R G Y B" or "Red Green Yellow Blue" into packed color ordinals.
+     * Colors may be given by name or initial, in any case, separated by spaces.
+     *
+     * @param text the code series to parse.
+     * @return the packed code, or a negative value if the length or a color is wrong.
+     */
+    protected int parseCode(String text) {
+        int packed = 0;
+        int multiplier = 1;
+        int count = 0;
+        int i = 0;
+        while (i < text.length()) {
+            if (text.charAt(i) == ' ') {
+                i++;
+                continue;
+            }
+            int end = text.indexOf(' ', i);
+            if (end < 0) {
+                end = text.length();
+            }
+            if (count == codeLength) {
+                return WRONG_LENGTH;
+            }
+            int color = colorOrdinal(text, i, end - i);
+            if (color < 0) {
+                return UNKNOWN_COLOR;
+            }
+            packed += color * multiplier;
+            multiplier *= colors.size();
+            count++;
+            i = end;
+        }
+        return count == codeLength ? packed : WRONG_LENGTH;
+    }
+
+    private int colorOrdinal(String text, int start, int length) {
+        for (int color = 0; color < colors.size(); color++) {
+            String name = colors.get(color);
+            boolean initial = length == 1 && Character.toUpperCase(text.charAt(start)) == name.charAt(0);
+            if (initial || (length == name.length() && text.regionMatches(true, start, name, 0, length))) {
+                return color;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -37,7 +126,7 @@ public class Mastermind extends GuessingGame {
         try (BufferedReader br = new BufferedReader(new FileReader(fileName))) {
             String line = br.readLine();
             if (line != null) {
-                System.out.println("Code loaded from file: " + line.trim());
+                listener.message("Code loaded from file: " + line.trim());
                 return line.trim();
             } else {
                 System.err.println("Error: The file is empty.");
@@ -70,22 +159,24 @@ public class Mastermind extends GuessingGame {
     @Override
     protected GameRecord play() {
         int attempts = 0;
-        System.out.println("Mastermind Codebreaker game started!");
+        listener.message("Mastermind Codebreaker game started!");
 
         while (attempts < maxAttempts) {
             System.out.println("Enter your guess (e.g., R G Y B): ");
             String guess = new Scanner(System.in).nextLine().toUpperCase(); // Standardize input to uppercase
 
             if (validateGuess(guess)) {
-                System.out.println("Congratulations! You've broken the code.");
-                return new GameRecord(100 - attempts, "Player"); // Example scoring logic
+                listener.message("Congratulations! You've broken the code.");
+                return new GameRecord(100 - attempts, "Player", attempts + 1); // Example scoring logic
             } else {
-                System.out.println("Incorrect guess. Try again.");
+                listener.message("Incorrect guess. Try again.");
             }
             attempts++;
         }
-        System.out.println("Game over! The correct code was: " + code);
-        return new GameRecord(0, "Player"); // Player ran out of attempts
+        if (listener.isEnabled()) {
+            listener.message("Game over! The correct code was: " + code);
+        }
+        return new GameRecord(0, "Player", maxAttempts); // Player ran out of attempts
     }
 
     /**
@@ -97,50 +188,46 @@ public class Mastermind extends GuessingGame {
      */
     @Override
     protected boolean validateGuess(String guess) {
-        String[] guessColors = guess.split(" ");
-        String[] codeColors = code.split(" ");
+        int packedGuess = parseCode(guess);
 
-        // Check if the player's guess has the correct number of colors
-        if (guessColors.length != codeLength) {
-            System.out.println("Error: Your guess must have exactly " + codeLength + " colors.");
+        // Check if the player's guess has the correct number of known colors
+        if (packedGuess == WRONG_LENGTH) {
+            if (listener.isEnabled()) {
+                listener.message("Error: Your guess must have exactly " + codeLength + " colors.");
+            }
             return false;
         }
-
-        int correctPosition = 0; // Colors in correct position
-        int correctColor = 0;    // Colors in wrong position
-
-        boolean[] guessedPositions = new boolean[codeLength];
-        boolean[] correctPositions = new boolean[codeLength];
-
-        // First pass: check for correct colors in the correct positions
-        for (int i = 0; i < codeLength; i++) {
-            if (guessColors[i].equals(codeColors[i])) {
-                correctPosition++;
-                guessedPositions[i] = true;
-                correctPositions[i] = true;
+        if (packedGuess == UNKNOWN_COLOR) {
+            if (listener.isEnabled()) {
+                listener.message("Error: Unknown color. Use " + colors + " or their initials.");
             }
+            return false;
         }
 
-        // Second pass: check for correct colors in the wrong positions
-        for (int i = 0; i < codeLength; i++) {
-            if (!guessedPositions[i]) {  // Skip colors already correctly positioned
-                for (int j = 0; j < codeLength; j++) {
-                    if (!correctPositions[j] && guessColors[i].equals(codeColors[j])) {
-                        correctColor++;
-                        correctPositions[j] = true;
-                        break;
-                    }
-                }
-            }
-        }
+        int feedback = feedback(packedGuess);
+        int correctPosition = feedback / (codeLength + 1); // Colors in correct position
+        int correctColor = feedback % (codeLength + 1);    // Colors in wrong position
 
         // Provide feedback to the player
-        System.out.println("Colors in correct position: " + correctPosition);
-        System.out.println("Colors in wrong position: " + correctColor);
+        if (listener.isEnabled()) {
+            listener.message("Colors in correct position: " + correctPosition);
+            listener.message("Colors in wrong position: " + correctColor);
+        }
 
         return correctPosition == codeLength;
     }
 
+    /**
+     * Scores a packed guess against the code using per-color counts, in O(codeLength)
+     * and without allocating.
+     *
+     * @param packedGuess the guess as packed color ordinals.
+     * @return the packed feedback, black * (codeLength + 1) + white.
+     */
+    protected int feedback(int packedGuess) {
+        return MastermindCodes.feedback(packedGuess, packedCode, colors.size(), codeLength);
+    }
+
     /**
      * The main method to start the Mastermind game and display the results.
      *
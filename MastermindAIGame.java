@@ -0,0 +1,134 @@
+/**
+ * Plays an automated Mastermind code-breaker against every possible secret of a code
+ * space (or a range of it), one game per secret, and reports the average number of
+ * guesses and throughput.
+ */
+public class MastermindAIGame extends GuessingGame {
+    private MastermindCodes codes;
+    private MastermindPlayer player;
+    private int firstSecret;
+    private int nextSecret;
+    private int endSecret;
+    private long totalGuesses;
+    private int mostGuesses;
+    // guessHistogram[n] counts secrets broken in n guesses; index 0 counts secrets never broken
+    private long[] guessHistogram;
+
+    /**
+     * Creates a game that will try every secret of the code space in turn.
+     *
+     * @param maxAttempts maximum number of guesses the player gets per secret.
+     * @param codes the code space to play in.
+     * @param player the code-breaker.
+     */
+    public MastermindAIGame(int maxAttempts, MastermindCodes codes, MastermindPlayer player) {
+        this(maxAttempts, codes, player, 0, codes.size());
+    }
+
+    /**
+     * Creates a game that will try the secrets from firstSecret up to, not including, endSecret.
+     *
+     * @param maxAttempts maximum number of guesses the player gets per secret.
+     * @param codes the code space to play in.
+     * @param player the code-breaker.
+     * @param firstSecret the first secret to play.
+     * @param endSecret the secret after the last one to play.
+     */
+    public MastermindAIGame(int maxAttempts, MastermindCodes codes, MastermindPlayer player, int firstSecret, int endSecret) {
+        super(maxAttempts);
+        this.codes = codes;
+        this.player = player;
+        this.firstSecret = firstSecret;
+        this.nextSecret = firstSecret;
+        this.endSecret = endSecret;
+        this.guessHistogram = new long[maxAttempts + 1];
+    }
+
+    /**
+     * Plays the player against the next secret, scoring like Mastermind: 100 minus the
+     * number of wrong guesses, or 0 if the code is not broken in time.
+     *
+     * @return a GameRecord with the player's score.
+     */
+    @Override
+    protected GameRecord play() {
+        int secret = nextSecret++;
+        player.reset();
+        for (int attempts = 0; attempts < maxAttempts; attempts++) {
+            int guess = player.nextGuess();
+            int feedback = codes.feedback(guess, secret);
+            if (feedback == codes.winningFeedback()) {
+                totalGuesses += attempts + 1;
+                mostGuesses = Math.max(mostGuesses, attempts + 1);
+                guessHistogram[attempts + 1]++;
+                if (listener.isEnabled()) {
+                    listener.message(player.playerId() + " broke code " + secret + " in " + (attempts + 1) + " guesses.");
+                }
+                return new GameRecord(100 - attempts, player.playerId(), attempts + 1);
+            }
+            player.feedback(guess, feedback);
+        }
+        totalGuesses += maxAttempts;
+        mostGuesses = maxAttempts;
+        guessHistogram[0]++;
+        if (listener.isEnabled()) {
+            listener.message(player.playerId() + " failed to break code " + secret + ".");
+        }
+        return new GameRecord(0, player.playerId(), maxAttempts);
+    }
+
+    // Guesses are made by the player, so there is no text guess to validate
+    @Override
+    protected boolean validateGuess(String guess) {
+        return false;
+    }
+
+    @Override
+    protected boolean playNext() {
+        return nextSecret < endSecret;
+    }
+
+    public double averageGuesses() {
+        int played = nextSecret - firstSecret;
+        return played == 0 ? 0.0 : (double) totalGuesses / played;
+    }
+
+    public long totalGuesses() {
+        return totalGuesses;
+    }
+
+    // Shared array; index n counts secrets broken in n guesses and index 0 those never broken
+    public long[] guessHistogram() {
+        return guessHistogram;
+    }
+
+    public int mostGuesses() {
+        return mostGuesses;
+    }
+
+    /**
+     * Runs the Knuth solver against every secret and prints the results.
+     *
+     * @param args optional code length (default 4) and number of colors (default 4).
+     */
+    public static void main(String[] args) {
+        int codeLength = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int colorCount = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        long start = System.nanoTime();
+        MastermindCodes codes = MastermindCodes.open(colorCount, codeLength);
+        long tableMillis = (System.nanoTime() - start) / 1_000_000;
+
+        MastermindAIGame game = new MastermindAIGame(20, codes, new KnuthSolver(codes));
+        game.setListener(new SilentGameListener());
+        start = System.nanoTime();
+        AllGamesRecord record = game.playAll();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Mastermind AI results for " + colorCount + " colors, code length " + codeLength + ":");
+        System.out.println("Secrets played: " + codes.size() + " (feedback table ready in " + tableMillis + " ms)");
+        System.out.println("Average guesses: " + game.averageGuesses() + ", worst case: " + game.mostGuesses());
+        System.out.println("Average score: " + record.average());
+        System.out.printf("Throughput: %.1f games/s%n", codes.size() / seconds);
+    }
+}
@@ -0,0 +1,270 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The space of Mastermind codes for a number of colors and a code length. A code is an
+ * int from 0 to size() - 1 whose base-colorCount digits are the color ordinals, position 0
+ * in the lowest digit. Feedback is packed into one int as black * (codeLength + 1) + white.
+ *
+ * When the space is small enough, feedback for every (guess, secret) pair is computed once
+ * into a flat byte table, so solvers score candidates with a single array read. Instances
+ * are immutable and can be shared between threads.
+ *
+ * Building the table takes size() squared feedback computations, so a code space can be
+ * written to a snapshot file and mapped back: read() keeps the color counts and the table
+ * as views of the mapping, so it copies nothing whatever the size. open() uses the
+ * snapshot in the working directory when one was written for the same colors and length.
+ */
+public class MastermindCodes {
+    // Largest code space whose full feedback table is kept (4096 * 4096 bytes = 16 MB)
+    private static final int MAX_TABLE_CODES = 4096;
+    // Color counts are packed 4 bits per color, so a count, and with it a code length, must stay below 16
+    static final int MAX_CODE_LENGTH = 15;
+    private static final int MAGIC = 0x4D4D4353; // "MMCS"
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 24;
+
+    private final int colorCount;
+    private final int codeLength;
+    private final int size;
+    // Heap buffers when built, views of the snapshot when read; only ever read with absolute gets
+    private final LongBuffer colorCounts;
+    private final ByteBuffer table;
+
+    /**
+     * Creates the code space.
+     *
+     * @param colorCount the number of colors, at most 16.
+     * @param codeLength the number of positions in a code, at most 15.
+     */
+    public MastermindCodes(int colorCount, int codeLength) {
+        if (colorCount < 1 || colorCount > 16 || codeLength < 1 || codeLength > MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("Unsupported code space: " + colorCount + " colors, length " + codeLength);
+        }
+        long codes = Math.round(Math.pow(colorCount, codeLength));
+        if (codes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Code space too large: " + codes + " codes");
+        }
+        this.colorCount = colorCount;
+        this.codeLength = codeLength;
+        this.size = (int) codes;
+
+        // Per-code color histogram, one 4-bit count per color
+        long[] colorCounts = new long[size];
+        for (int code = 0; code < size; code++) {
+            long counts = 0;
+            for (int position = 0, rest = code; position < codeLength; position++, rest /= colorCount) {
+                counts += 1L << (4 * (rest % colorCount));
+            }
+            colorCounts[code] = counts;
+        }
+        this.colorCounts = LongBuffer.wrap(colorCounts);
+
+        if (size <= MAX_TABLE_CODES) {
+            byte[] table = new byte[size * size];
+            for (int guess = 0; guess < size; guess++) {
+                for (int secret = 0; secret < size; secret++) {
+                    table[guess * size + secret] = (byte) computeFeedback(guess, secret);
+                }
+            }
+            this.table = ByteBuffer.wrap(table);
+        } else {
+            this.table = null;
+        }
+    }
+
+    private MastermindCodes(int colorCount, int codeLength, LongBuffer colorCounts, ByteBuffer table) {
+        this.colorCount = colorCount;
+        this.codeLength = codeLength;
+        this.size = colorCounts.limit();
+        this.colorCounts = colorCounts;
+        this.table = table;
+    }
+
+    // Where open() looks for the snapshot of a code space
+    public static Path snapshotFile(int colorCount, int codeLength) {
+        return Paths.get("mastermind-" + colorCount + "x" + codeLength + ".codes");
+    }
+
+    /**
+     * Returns a code space, read from its snapshot file when there is one and built otherwise.
+     *
+     * @param colorCount the number of colors, at most 16.
+     * @param codeLength the number of positions in a code, at most 15.
+     * @return the code space.
+     */
+    public static MastermindCodes open(int colorCount, int codeLength) {
+        Path file = snapshotFile(colorCount, codeLength);
+        if (Files.exists(file)) {
+            try {
+                MastermindCodes codes = read(file);
+                if (codes.colorCount == colorCount && codes.codeLength == codeLength) {
+                    return codes;
+                }
+            } catch (IOException e) {
+                // Damaged; build below
+            }
+        }
+        return new MastermindCodes(colorCount, codeLength);
+    }
+
+    /**
+     * Reads a code space written by write().
+     *
+     * @param file the snapshot file.
+     * @return the code space, with its feedback table if it was written with one.
+     * @throws IOException if the file cannot be read or is not a code space snapshot.
+     */
+    public static MastermindCodes read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                throw new IOException(file + " is not a Mastermind code space snapshot");
+            }
+            int colorCount = buffer.getInt();
+            int codeLength = buffer.getInt();
+            int size = buffer.getInt();
+            boolean hasTable = buffer.getInt() != 0;
+            if (colorCount < 1 || colorCount > 16 || codeLength < 1 || codeLength > MAX_CODE_LENGTH
+                    || size != Math.round(Math.pow(colorCount, codeLength)) || (hasTable && size > MAX_TABLE_CODES)) {
+                throw new IOException(file + " has an inconsistent code space: " + colorCount + " colors, length "
+                        + codeLength + ", " + size + " codes");
+            }
+            if (buffer.limit() < HEADER_SIZE + size * 8L + (hasTable ? (long) size * size : 0)) {
+                throw new IOException(file + " is truncated");
+            }
+            // The mapping stays valid after the channel is closed
+            LongBuffer colorCounts = section(buffer, HEADER_SIZE).asLongBuffer().limit(size);
+            ByteBuffer table = hasTable ? section(buffer, HEADER_SIZE + size * 8).limit(size * size) : null;
+            return new MastermindCodes(colorCount, codeLength, colorCounts, table);
+        }
+    }
+
+    private static ByteBuffer section(MappedByteBuffer image, int offset) {
+        return image.duplicate().position(offset).slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Writes the code space, feedback table included, to a snapshot file.
+     *
+     * @param file the snapshot file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(HEADER_SIZE + size * 8L + (table != null ? table.limit() : 0)))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(FORMAT).putInt(colorCount).putInt(codeLength).putInt(size).putInt(table != null ? 1 : 0);
+        buffer.asLongBuffer().put(colorCounts.duplicate().rewind());
+        if (table != null) {
+            buffer.position(HEADER_SIZE + size * 8).put(table.duplicate().rewind());
+        }
+        buffer.rewind();
+        AtomicFiles.write(file, buffer);
+    }
+
+    public int colorCount() {
+        return colorCount;
+    }
+
+    public int codeLength() {
+        return codeLength;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Number of distinct feedback values, for sizing per-feedback counters
+    public int feedbackCount() {
+        return (codeLength + 1) * (codeLength + 1);
+    }
+
+    public int winningFeedback() {
+        return codeLength * (codeLength + 1);
+    }
+
+    public int blacks(int feedback) {
+        return feedback / (codeLength + 1);
+    }
+
+    public int whites(int feedback) {
+        return feedback % (codeLength + 1);
+    }
+
+    public int color(int code, int position) {
+        for (int i = 0; i < position; i++) {
+            code /= colorCount;
+        }
+        return code % colorCount;
+    }
+
+    /**
+     * Scores a guess against a secret.
+     *
+     * @param guess the guessed code.
+     * @param secret the secret code.
+     * @return the packed feedback, black * (codeLength + 1) + white.
+     */
+    public int feedback(int guess, int secret) {
+        if (table != null) {
+            return table.get(guess * size + secret) & 0xFF; // Feedback runs up to 240, past a signed byte
+        }
+        return computeFeedback(guess, secret);
+    }
+
+    /**
+     * Scores a guess against a secret without any precomputed state, in O(codeLength + colorCount)
+     * and without allocating.
+     *
+     * @param guess the guessed code.
+     * @param secret the secret code.
+     * @param colorCount the number of colors, at most 16.
+     * @param codeLength the number of positions, at most 15.
+     * @return the packed feedback, black * (codeLength + 1) + white.
+     */
+    public static int feedback(int guess, int secret, int colorCount, int codeLength) {
+        int blacks = 0;
+        long guessCounts = 0;
+        long secretCounts = 0;
+        for (int position = 0; position < codeLength; position++, guess /= colorCount, secret /= colorCount) {
+            int guessColor = guess % colorCount;
+            int secretColor = secret % colorCount;
+            if (guessColor == secretColor) {
+                blacks++;
+            }
+            guessCounts += 1L << (4 * guessColor);
+            secretCounts += 1L << (4 * secretColor);
+        }
+        return blacks * (codeLength + 1) + (commonColors(guessCounts, secretCounts, colorCount) - blacks);
+    }
+
+    // Colors shared regardless of position: sum of the smaller count of each color
+    private static int commonColors(long guessCounts, long secretCounts, int colorCount) {
+        int common = 0;
+        for (int color = 0; color < colorCount; color++) {
+            int shift = 4 * color;
+            common += Math.min((int) (guessCounts >>> shift) & 0xF, (int) (secretCounts >>> shift) & 0xF);
+        }
+        return common;
+    }
+
+    private int computeFeedback(int guess, int secret) {
+        int blacks = 0;
+        for (int position = 0, g = guess, s = secret; position < codeLength; position++, g /= colorCount, s /= colorCount) {
+            if (g % colorCount == s % colorCount) {
+                blacks++;
+            }
+        }
+        int common = commonColors(colorCounts.get(guess), colorCounts.get(secret), colorCount);
+        return blacks * (codeLength + 1) + (common - blacks);
+    }
+}
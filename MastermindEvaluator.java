@@ -0,0 +1,200 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Runs a Mastermind code-breaker against every secret of a code space in parallel.
+ * The secret range is split with fork-join tasks; each task plays its own slice through
+ * a MastermindAIGame with its own solver and writes the scores straight into its part of
+ * one preallocated result, so nothing is copied as the tasks join.
+ */
+public class MastermindEvaluator {
+    private static final int SECRETS_PER_TASK = 256;
+    private static final int MAX_ATTEMPTS = 20;
+    // Tree levels built in parallel before the secrets are split; below them nodes are small
+    private static final int EXPANDED_LEVELS = 3;
+
+    private final MastermindCodes codes;
+    private final Supplier<MastermindPlayer> solverFactory;
+    private Runnable preparation;
+
+    /**
+     * Creates an evaluator.
+     *
+     * @param codes the code space whose secrets are all played.
+     * @param solverFactory creates one solver per task; solvers are never shared between threads.
+     */
+    public MastermindEvaluator(MastermindCodes codes, Supplier<MastermindPlayer> solverFactory) {
+        this.codes = codes;
+        this.solverFactory = solverFactory;
+    }
+
+    /**
+     * Sets work to run on the pool before the secrets are split, such as building the top
+     * of a shared solver tree with ConsistentGuessSolver.expandTree.
+     *
+     * @param preparation the work, or null for none.
+     */
+    public void setPreparation(Runnable preparation) {
+        this.preparation = preparation;
+    }
+
+    /**
+     * Plays every secret on a fork-join pool.
+     *
+     * @param parallelism the number of worker threads to use.
+     * @return the records, in secret order, and the guess distribution.
+     */
+    public Result run(int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            if (preparation != null) {
+                pool.invoke(ForkJoinTask.adapt(preparation));
+            }
+            Result result = new Result(codes.size(), MAX_ATTEMPTS);
+            pool.invoke(new EvaluationTask(result, 0, codes.size()));
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Records and guess distribution for every secret of a code space.
+     */
+    public static class Result {
+        // Indexed by secret, each written by the task that plays it
+        private final int[] scores;
+        private final int[] guessCounts;
+        private final long[] guessHistogram;
+        private long totalGuesses;
+        private String playerId;
+        private AllGamesRecord records;
+
+        Result(int secrets, int maxAttempts) {
+            this.scores = new int[secrets];
+            this.guessCounts = new int[secrets];
+            this.guessHistogram = new long[maxAttempts + 1];
+        }
+
+        // Adds a finished slice's totals; its scores are already in place
+        synchronized void addSlice(String playerId, long[] sliceHistogram, long sliceGuesses) {
+            this.playerId = playerId;
+            for (int i = 0; i < guessHistogram.length; i++) {
+                guessHistogram[i] += sliceHistogram[i];
+            }
+            totalGuesses += sliceGuesses;
+        }
+
+        // Built from the scores and guess counts on first use
+        public synchronized AllGamesRecord getRecords() {
+            if (records == null) {
+                records = new AllGamesRecord();
+                for (int secret = 0; secret < scores.length; secret++) {
+                    records.add(scores[secret], playerId, guessCounts[secret]);
+                }
+            }
+            return records;
+        }
+
+        // Index n counts secrets broken in n guesses; index 0 counts secrets never broken
+        public synchronized long[] getGuessHistogram() {
+            return guessHistogram;
+        }
+
+        public synchronized double averageGuesses() {
+            return scores.length == 0 ? 0.0 : (double) totalGuesses / scores.length;
+        }
+    }
+
+    @SuppressWarnings("serial") // Holds the evaluator and its Result; only ever forked, never serialized
+    private class EvaluationTask extends RecursiveAction {
+        private final Result result;
+        private final int from;
+        private final int to;
+
+        EvaluationTask(Result result, int from, int to) {
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SECRETS_PER_TASK) {
+                MastermindAIGame game = new MastermindAIGame(MAX_ATTEMPTS, codes, solverFactory.get(), from, to);
+                game.setListener(new SilentGameListener());
+                String playerId = null;
+                for (int secret = from; game.playNext(); secret++) {
+                    GameRecord record = game.play();
+                    result.scores[secret] = record.getScore();
+                    result.guessCounts[secret] = record.getGuessCount();
+                    playerId = record.getPlayerId();
+                }
+                result.addSlice(playerId, game.guessHistogram(), game.totalGuesses());
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new EvaluationTask(result, from, middle), new EvaluationTask(result, middle, to));
+        }
+    }
+
+    /**
+     * Evaluates a solver over a whole code space and prints the guess distribution.
+     * With "scaling" as the last argument it also runs single-threaded and reports the speedup.
+     *
+     * @param args code length (default 5), number of colors (default 6),
+     *             solver "consistent" or "knuth" (default consistent), optional "scaling".
+     */
+    public static void main(String[] args) {
+        int codeLength = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int colorCount = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        String solver = args.length > 2 ? args[2] : "consistent";
+        boolean scaling = args.length > 3 && args[3].equals("scaling");
+
+        MastermindCodes codes = new MastermindCodes(colorCount, codeLength);
+        MastermindEvaluator evaluator = evaluator(solver, codes);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        Result result = evaluator.run(cores);
+        double parallelSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Evaluated " + codes.size() + " secrets (" + colorCount + " colors, code length "
+                + codeLength + ") with " + solver + " on " + cores + " threads");
+        System.out.println("Average guesses: " + result.averageGuesses() + ", average score: " + result.getRecords().average());
+        System.out.println("Guess distribution:");
+        long[] histogram = result.getGuessHistogram();
+        for (int guesses = 1; guesses < histogram.length; guesses++) {
+            if (histogram[guesses] > 0) {
+                System.out.println("  " + guesses + " guesses: " + histogram[guesses]);
+            }
+        }
+        if (histogram[0] > 0) {
+            System.out.println("  not broken: " + histogram[0]);
+        }
+        System.out.printf("Time: %.3f s (%.0f games/s)%n", parallelSeconds, codes.size() / parallelSeconds);
+
+        if (scaling) {
+            // A fresh evaluator, so the single-threaded run does not reuse a solver tree built above
+            MastermindEvaluator serial = evaluator(solver, codes);
+            start = System.nanoTime();
+            serial.run(1);
+            double serialSeconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Single thread: %.3f s, speedup on %d threads: %.2fx%n",
+                    serialSeconds, cores, serialSeconds / parallelSeconds);
+        }
+    }
+
+    // Solvers from one evaluator share whatever read-only state the solver supports
+    private static MastermindEvaluator evaluator(String solver, MastermindCodes codes) {
+        if (solver.equals("knuth")) {
+            return new MastermindEvaluator(codes, () -> new KnuthSolver(codes));
+        }
+        ConsistentGuessSolver.DecisionNode tree = ConsistentGuessSolver.newTree(codes);
+        MastermindEvaluator evaluator = new MastermindEvaluator(codes, () -> new ConsistentGuessSolver(tree));
+        evaluator.setPreparation(() -> ConsistentGuessSolver.expandTree(tree, EXPANDED_LEVELS));
+        return evaluator;
+    }
+}
@@ -0,0 +1,33 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Runs MastermindAIGame in the GameHarness as "mastermind": a task plays one code-breaker
+ * against its shard of the code space. Options: codeLength (default 4), colors (default 6)
+ * and maxAttempts (default 20).
+ */
+public class MastermindGameProvider implements GameProvider {
+    @Override
+    public String name() {
+        return "mastermind";
+    }
+
+    @Override
+    public Class<?> playerType() {
+        return MastermindPlayer.class;
+    }
+
+    @Override
+    public Game newGame(GameRunContext context, String player, int shard, int shardCount, RandomGenerator random) {
+        MastermindCodes codes = codes(context);
+        int firstSecret = (int) ((long) codes.size() * shard / shardCount);
+        int endSecret = (int) ((long) codes.size() * (shard + 1) / shardCount);
+        MastermindPlayer solver = context.newPlayer(player, MastermindPlayer.class, random);
+        return new MastermindAIGame(context.spec().option("maxAttempts", 20), codes, solver, firstSecret, endSecret);
+    }
+
+    // The run's code space, read from its snapshot or built, once, and shared by every task and solver
+    static MastermindCodes codes(GameRunContext context) {
+        return context.shared("mastermindCodes", () -> MastermindCodes.open(
+                context.spec().option("colors", 6), context.spec().option("codeLength", 4)));
+    }
+}
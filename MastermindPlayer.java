@@ -0,0 +1,13 @@
+/**
+ * An automated Mastermind code-breaker working on the packed codes of MastermindCodes.
+ */
+public interface MastermindPlayer {
+    int nextGuess();
+
+    // Feedback for the last guess, packed as in MastermindCodes.feedback
+    void feedback(int guess, int feedback);
+
+    String playerId();
+
+    void reset();
+}
\ No newline at end of file
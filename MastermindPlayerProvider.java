@@ -0,0 +1,32 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * The built-in Mastermind code-breakers: knuth and consistent. Consistent solvers of a
+ * run share one lazily built decision tree.
+ */
+public class MastermindPlayerProvider implements PlayerProvider<MastermindPlayer> {
+    @Override
+    public Class<MastermindPlayer> playerType() {
+        return MastermindPlayer.class;
+    }
+
+    @Override
+    public List<String> names() {
+        return Arrays.asList("knuth", "consistent");
+    }
+
+    @Override
+    public MastermindPlayer newPlayer(String name, GameRunContext context, RandomGenerator random) {
+        MastermindCodes codes = MastermindGameProvider.codes(context);
+        switch (name) {
+            case "knuth":
+                return new KnuthSolver(codes);
+            case "consistent":
+                return new ConsistentGuessSolver(context.shared("consistentTree", () -> ConsistentGuessSolver.newTree(codes)));
+            default:
+                throw new IllegalArgumentException("Unknown Mastermind player: " + name);
+        }
+    }
+}
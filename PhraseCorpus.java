@@ -0,0 +1,249 @@
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.zip.CRC32C;
+
+/**
+ * A read-only list of phrases backed by a memory-mapped file, one phrase per line.
+ * Opening the file only records where each line starts. A phrase is decoded from the
+ * mapping when get() is called, so the corpus itself never sits on the heap.
+ * Lines are trimmed, like the phrases the games have always used.
+ *
+ * Each phrase is also compiled into a CompiledPhrase the first time a game asks for it,
+ * and kept with the corpus so later games, on any thread, reuse it. At most
+ * COMPILED_SLOTS phrases are kept, so the heap the cache takes does not grow with the corpus.
+ *
+ * Scanning for line starts is the one pass over the file at startup; CorpusSnapshot
+ * saves the line index, version and pattern index so later launches can skip it.
+ */
+public class PhraseCorpus extends AbstractList<String> implements RandomAccess {
+    // Files larger than one mapping are split into several; a line may span two of them
+    private static final long SEGMENT_SIZE = 1L << 30;
+    // Compiled phrases kept at once; phrase i may only sit in slot i % COMPILED_SLOTS
+    private static final int COMPILED_SLOTS = 1 << 15;
+
+    private final MappedByteBuffer[] segments;
+    // A heap array when the file was scanned, a view of the snapshot when one was opened
+    private final LongBuffer lineStarts;
+    private final int size;
+    // Filled lazily; entries are immutable, so a racing thread at worst compiles a phrase twice
+    private volatile CompiledEntry[] compiled;
+    private volatile long version;
+    private volatile PhrasePatternIndex patternIndex;
+    private final CorpusSnapshot snapshot;
+
+    /**
+     * Maps the given file and indexes its lines.
+     *
+     * @param file the phrase file, UTF-8 encoded with one phrase per line.
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    public PhraseCorpus(Path file) throws IOException {
+        this.segments = map(file);
+        this.snapshot = null;
+        long length = 0;
+        for (MappedByteBuffer segment : segments) {
+            length += segment.limit();
+        }
+
+        // lineStarts[i + 1] - 1 is where line i ends, so keep one extra entry past the last line
+        long[] starts = new long[1024];
+        int lines = 0;
+        long lineStart = 0;
+        for (int s = 0; s < segments.length; s++) {
+            MappedByteBuffer segment = segments[s];
+            long base = s * SEGMENT_SIZE;
+            int limit = segment.limit();
+            for (int i = 0; i < limit; i++) {
+                if (segment.get(i) == '\n') {
+                    if (lines + 1 >= starts.length) {
+                        starts = Arrays.copyOf(starts, starts.length * 2);
+                    }
+                    starts[lines++] = lineStart;
+                    lineStart = base + i + 1;
+                }
+            }
+        }
+        // A final line without a newline still counts, but a trailing newline does not start a new one
+        if (lineStart < length) {
+            if (lines + 1 >= starts.length) {
+                starts = Arrays.copyOf(starts, starts.length + 1);
+            }
+            starts[lines++] = lineStart;
+            lineStart = length + 1;
+        }
+        starts[lines] = lineStart;
+        this.lineStarts = LongBuffer.wrap(Arrays.copyOf(starts, lines + 1));
+        this.size = lines;
+    }
+
+    // Opens a file whose line index, version and pattern index come from a snapshot of it
+    PhraseCorpus(Path file, CorpusSnapshot snapshot) throws IOException {
+        this.segments = map(file);
+        this.snapshot = snapshot;
+        this.lineStarts = snapshot.lineStarts();
+        this.size = lineStarts.limit() - 1;
+        this.version = snapshot.version();
+    }
+
+    private static MappedByteBuffer[] map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            int segmentCount = (int) ((length + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+            MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long start = i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, length - start));
+            }
+            return segments;
+        }
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        long start = lineStarts.get(index);
+        long end = lineStarts.get(index + 1) - 1; // Drop the newline
+        while (end > start && isWhitespace(byteAt(end - 1))) {
+            end--;
+        }
+        while (start < end && isWhitespace(byteAt(start))) {
+            start++;
+        }
+        return new String(bytes(start, (int) (end - start)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the compiled form of a phrase, compiling it on first use or when another
+     * phrase has taken its slot since.
+     *
+     * @param index the index of the phrase.
+     * @return the compiled phrase, shared while it stays in the cache.
+     */
+    public CompiledPhrase compiled(int index) {
+        CompiledEntry[] cache = compiled;
+        if (cache == null) {
+            // Allocated on first use, so opening a large corpus stays cheap; a racing thread's array just loses its entries
+            cache = new CompiledEntry[Math.max(1, Math.min(size, COMPILED_SLOTS))];
+            compiled = cache;
+        }
+        int slot = index % cache.length;
+        CompiledEntry entry = cache[slot];
+        if (entry == null || entry.index != index) {
+            entry = new CompiledEntry(index, CompiledPhrase.compile(get(index)));
+            cache[slot] = entry;
+        }
+        return entry.phrase;
+    }
+
+    /**
+     * Returns the pattern index of the corpus, read from the snapshot the corpus was opened
+     * with or built on first use, and shared by every caller from then on.
+     *
+     * @return the shared pattern index.
+     */
+    public PhrasePatternIndex patternIndex() {
+        PhrasePatternIndex index = patternIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = patternIndex;
+                if (index == null) {
+                    index = snapshot != null ? snapshot.patternIndex(this) : new PhrasePatternIndex(this);
+                    patternIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    // Start of each line, then one entry past the end of the last, for writing a snapshot
+    LongBuffer lineStarts() {
+        return lineStarts.duplicate();
+    }
+
+    /**
+     * Identifies the corpus contents: the CRC32C of the file in the high half and its
+     * length in the low half. Computed on first use and then kept.
+     *
+     * @return the version; any edit to the file almost certainly changes it.
+     */
+    public long version() {
+        long current = version;
+        if (current == 0) {
+            CRC32C crc = new CRC32C();
+            long length = 0;
+            for (MappedByteBuffer segment : segments) {
+                crc.update(segment.duplicate());
+                length += segment.limit();
+            }
+            current = crc.getValue() << 32 | (length & 0xFFFFFFFFL);
+            version = current;
+        }
+        return current;
+    }
+
+    /**
+     * Identifies any list of phrases: version() for a corpus, which a snapshot already
+     * holds, and otherwise an FNV-1a hash over the phrases' hash codes.
+     *
+     * @param phrases the phrases.
+     * @return the version.
+     */
+    public static long version(List<String> phrases) {
+        if (phrases instanceof PhraseCorpus) {
+            return ((PhraseCorpus) phrases).version();
+        }
+        long version = 0xCBF29CE484222325L;
+        for (String phrase : phrases) {
+            version = (version ^ phrase.hashCode()) * 0x100000001B3L;
+        }
+        return version;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private byte byteAt(long position) {
+        return segments[(int) (position / SEGMENT_SIZE)].get((int) (position % SEGMENT_SIZE));
+    }
+
+    private byte[] bytes(long position, int length) {
+        byte[] bytes = new byte[length];
+        int copied = 0;
+        while (copied < length) {
+            MappedByteBuffer segment = segments[(int) ((position + copied) / SEGMENT_SIZE)];
+            int offset = (int) ((position + copied) % SEGMENT_SIZE);
+            int count = Math.min(length - copied, segment.limit() - offset);
+            segment.get(offset, bytes, copied, count);
+            copied += count;
+        }
+        return bytes;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    // A cached phrase with the index it was compiled from, so a slot can tell whose it is
+    private static final class CompiledEntry {
+        final int index;
+        final CompiledPhrase phrase;
+
+        CompiledEntry(int index, CompiledPhrase phrase) {
+            this.index = index;
+            this.phrase = phrase;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only index of a phrase corpus grouped by letter pattern: the phrase as it looks
+ * before any letter is revealed, which captures word count and word lengths. It also
+ * keeps the set of letters in each phrase as a 26-bit mask, and, once a pattern is first
+ * played, the letter at each hidden position of its phrases. Built once and shared by
+ * every FrequencyGuesser, including across threads.
+ */
+public class PhrasePatternIndex {
+    private final List<String> phrases;
+    private final int[] letterMasks;
+    private final Map<String, Integer> patternIds;
+    private final String[] patterns;
+    private final int[][] phrasesByPattern;
+    private final int[][] letterCountsByPattern;
+    // Filled lazily; PatternLetters is immutable, so a racing thread at worst builds a pattern twice
+    private final PatternLetters[] lettersByPattern;
+
+    /**
+     * Indexes the given phrases.
+     *
+     * @param phrases the phrase corpus; it must not change while the index is in use.
+     */
+    public PhrasePatternIndex(List<String> phrases) {
+        this.phrases = phrases;
+        this.letterMasks = new int[phrases.size()];
+
+        // First pass counts each pattern so the buckets can be filled without boxing
+        this.patternIds = new HashMap<>();
+        List<String> patterns = new ArrayList<>();
+        List<int[]> sizes = new ArrayList<>();
+        int[] patternOf = new int[phrases.size()];
+        for (int i = 0; i < phrases.size(); i++) {
+            String phrase = phrases.get(i);
+            letterMasks[i] = WheelOfFortune.letterMask(phrase);
+            String pattern = pattern(phrase);
+            Integer id = patternIds.get(pattern);
+            if (id == null) {
+                id = patterns.size();
+                patternIds.put(pattern, id);
+                patterns.add(pattern);
+                sizes.add(new int[1]);
+            }
+            sizes.get(id)[0]++;
+            patternOf[i] = id;
+        }
+
+        this.patterns = patterns.toArray(new String[0]);
+        this.phrasesByPattern = new int[patterns.size()][];
+        this.letterCountsByPattern = new int[patterns.size()][26];
+        int[] filled = new int[patterns.size()];
+        for (int id = 0; id < phrasesByPattern.length; id++) {
+            phrasesByPattern[id] = new int[sizes.get(id)[0]];
+        }
+        for (int i = 0; i < patternOf.length; i++) {
+            int id = patternOf[i];
+            phrasesByPattern[id][filled[id]++] = i;
+            for (int letters = letterMasks[i]; letters != 0; letters &= letters - 1) {
+                letterCountsByPattern[id][Integer.numberOfTrailingZeros(letters)]++;
+            }
+        }
+        this.lettersByPattern = new PatternLetters[patterns.size()];
+    }
+
+    // Restores an index from its parts, e.g. as CorpusSnapshot saved them
+    PhrasePatternIndex(List<String> phrases, int[] letterMasks, String[] patterns, int[][] phrasesByPattern,
+            int[][] letterCountsByPattern) {
+        this.phrases = phrases;
+        this.letterMasks = letterMasks;
+        this.patterns = patterns;
+        this.phrasesByPattern = phrasesByPattern;
+        this.letterCountsByPattern = letterCountsByPattern;
+        this.lettersByPattern = new PatternLetters[patterns.length];
+        this.patternIds = new HashMap<>();
+        for (int id = 0; id < patterns.length; id++) {
+            patternIds.put(patterns[id], id);
+        }
+    }
+
+    // The phrase with every letter hidden, as getHiddenPhrase shows it before any guess
+    static String pattern(CharSequence phrase) {
+        StringBuilder pattern = new StringBuilder(phrase.length());
+        for (int i = 0; i < phrase.length(); i++) {
+            char c = phrase.charAt(i);
+            pattern.append(Character.isLetter(c) || c == '*' ? '*' : c);
+        }
+        return pattern.toString();
+    }
+
+    /**
+     * Looks up the id of a pattern.
+     *
+     * @param pattern a board with no letters revealed.
+     * @return the pattern id, or -1 if no phrase in the corpus has this pattern.
+     */
+    public int patternId(String pattern) {
+        Integer id = patternIds.get(pattern);
+        return id == null ? -1 : id;
+    }
+
+    // Indexes of the phrases sharing a pattern; the array is shared and must not be modified
+    public int[] phrases(int patternId) {
+        return phrasesByPattern[patternId];
+    }
+
+    // How many phrases of a pattern contain each letter; the array is shared and must not be modified
+    public int[] letterCounts(int patternId) {
+        return letterCountsByPattern[patternId];
+    }
+
+    /**
+     * Returns the letters of a pattern's phrases, decoding them the first time the pattern
+     * is asked for, so guessers can compare boards without decoding phrases again.
+     *
+     * @param patternId the pattern.
+     * @return the letters, in the order of phrases(patternId).
+     */
+    public PatternLetters letters(int patternId) {
+        PatternLetters letters = lettersByPattern[patternId];
+        if (letters == null) {
+            letters = new PatternLetters(patterns[patternId], phrasesByPattern[patternId]);
+            lettersByPattern[patternId] = letters;
+        }
+        return letters;
+    }
+
+    public int patternCount() {
+        return patterns.length;
+    }
+
+    public String pattern(int patternId) {
+        return patterns[patternId];
+    }
+
+    public String phrase(int index) {
+        return phrases.get(index);
+    }
+
+    public int letterMask(int index) {
+        return letterMasks[index];
+    }
+
+    /**
+     * The letter at every hidden position of each phrase of one pattern, one row of bytes
+     * per phrase: 0 for 'a' to 25 for 'z', or -1 for a letter no guess can reveal.
+     */
+    public final class PatternLetters {
+        private final int[] positions;
+        private final byte[] letters;
+
+        private PatternLetters(String pattern, int[] patternPhrases) {
+            int count = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                if (pattern.charAt(i) == '*') {
+                    count++;
+                }
+            }
+            positions = new int[count];
+            count = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                if (pattern.charAt(i) == '*') {
+                    positions[count++] = i;
+                }
+            }
+            letters = new byte[patternPhrases.length * positions.length];
+            for (int row = 0; row < patternPhrases.length; row++) {
+                String phrase = phrases.get(patternPhrases[row]);
+                for (int k = 0; k < positions.length; k++) {
+                    int letter = phrase.charAt(positions[k]) - 'a';
+                    letters[row * positions.length + k] = (byte) (letter >= 0 && letter < 26 ? letter : -1);
+                }
+            }
+        }
+
+        // Where the pattern hides letters; the array is shared and must not be modified
+        public int[] positions() {
+            return positions;
+        }
+
+        // Letter at the k-th hidden position of the phrase in the given row, or -1
+        public int letter(int row, int k) {
+            return letters[row * positions.length + k];
+        }
+    }
+}
@@ -0,0 +1,40 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Hands out the indexes 0 to size - 1 in random order, each at most once, in O(1) per pick.
+ * It is a sparse Fisher-Yates shuffle: only slots moved by earlier picks are stored, so a
+ * shuffle over a huge corpus costs memory only for the phrases actually handed out.
+ * Not thread-safe; each game or session keeps its own.
+ */
+public class PhraseShuffle {
+    private int remaining;
+    private final Map<Integer, Integer> moved = new HashMap<>();
+
+    public PhraseShuffle(int size) {
+        this.remaining = size;
+    }
+
+    /**
+     * Picks the next index.
+     *
+     * @param random the generator to pick with.
+     * @return an index not handed out before, or -1 when all have been.
+     */
+    public int next(RandomGenerator random) {
+        if (remaining == 0) {
+            return -1;
+        }
+        int pick = random.nextInt(remaining);
+        int last = --remaining;
+        int chosen = moved.getOrDefault(pick, pick);
+        moved.put(pick, moved.getOrDefault(last, last));
+        moved.remove(last);
+        return chosen;
+    }
+
+    public boolean hasNext() {
+        return remaining > 0;
+    }
+}
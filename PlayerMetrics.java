@@ -0,0 +1,81 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Guess latency and game counts for one player id, updated by any number of game threads.
+ */
+public class PlayerMetrics implements PlayerMetricsMBean {
+    private final String playerId;
+    private final LatencyHistogram guessLatency = new LatencyHistogram();
+    private final LongAdder games = new LongAdder();
+    // Guesses of games recorded in batches, which have no latencies
+    private final LongAdder untimedGuesses = new LongAdder();
+
+    PlayerMetrics(String playerId) {
+        this.playerId = playerId;
+    }
+
+    // Time one nextGuess call took
+    public void recordGuess(long nanos) {
+        guessLatency.record(nanos);
+    }
+
+    void recordGame() {
+        games.increment();
+    }
+
+    void recordGames(int count, long guessCount) {
+        games.add(count);
+        untimedGuesses.add(guessCount);
+    }
+
+    @Override
+    public String getPlayerId() {
+        return playerId;
+    }
+
+    @Override
+    public long getGames() {
+        return games.sum();
+    }
+
+    @Override
+    public long getGuesses() {
+        return guessLatency.count() + untimedGuesses.sum();
+    }
+
+    @Override
+    public double getGuessesPerGame() {
+        long count = games.sum();
+        return count == 0 ? 0.0 : (double) getGuesses() / count;
+    }
+
+    @Override
+    public double getMeanGuessNanos() {
+        return guessLatency.mean();
+    }
+
+    @Override
+    public long getGuessNanosP50() {
+        return guessLatency.percentile(50);
+    }
+
+    @Override
+    public long getGuessNanosP90() {
+        return guessLatency.percentile(90);
+    }
+
+    @Override
+    public long getGuessNanosP99() {
+        return guessLatency.percentile(99);
+    }
+
+    @Override
+    public long getGuessNanosP999() {
+        return guessLatency.percentile(99.9);
+    }
+
+    @Override
+    public long getMaxGuessNanos() {
+        return guessLatency.max();
+    }
+}
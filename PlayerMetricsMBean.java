@@ -0,0 +1,24 @@
+/**
+ * JMX view of one player's metrics. Latencies are in nanoseconds.
+ */
+public interface PlayerMetricsMBean {
+    String getPlayerId();
+
+    long getGames();
+
+    long getGuesses();
+
+    double getGuessesPerGame();
+
+    double getMeanGuessNanos();
+
+    long getGuessNanosP50();
+
+    long getGuessNanosP90();
+
+    long getGuessNanosP99();
+
+    long getGuessNanosP999();
+
+    long getMaxGuessNanos();
+}
@@ -0,0 +1,28 @@
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Player strategies for one kind of player, discovered with ServiceLoader from
+ * META-INF/services/PlayerProvider. Games ask GameRunContext for a player by name and by
+ * the interface they drive, e.g. WheelOfFortunePlayer.
+ *
+ * @param <P> the player interface the strategies implement.
+ */
+public interface PlayerProvider<P> {
+    // The interface every player of this provider implements
+    Class<P> playerType();
+
+    // Strategy names used in a run spec, e.g. "random1"
+    List<String> names();
+
+    /**
+     * Creates a player. Players are never shared between tasks, but read-only state such
+     * as an index can be shared through GameRunContext.shared().
+     *
+     * @param name one of names().
+     * @param context the run the player takes part in.
+     * @param random a generator for this player only.
+     * @return the new player.
+     */
+    P newPlayer(String name, GameRunContext context, RandomGenerator random);
+}
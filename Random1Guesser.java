@@ -1,7 +1,21 @@
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 public class Random1Guesser implements WheelOfFortunePlayer {
-    private Random random = new Random();
+    private RandomGenerator random;
+
+    public Random1Guesser() {
+        this.random = new SplittableRandom();
+    }
+
+    // Seeded constructor so tournament runs can be reproduced
+    public Random1Guesser(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    public Random1Guesser(RandomGenerator random) {
+        this.random = random;
+    }
 
     @Override
     public char nextGuess() {
@@ -9,6 +23,11 @@ public class Random1Guesser implements WheelOfFortunePlayer {
         return (char) ('a' + random.nextInt(26));
     }
 
+    @Override
+    public void reseed(RandomGenerator random) {
+        this.random = random;
+    }
+
     @Override
     public String playerId() {
         return "DumbGuesser";
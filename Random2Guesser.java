@@ -1,21 +1,46 @@
-import java.util.HashSet;
-import java.util.Random;
-import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 public class Random2Guesser implements WheelOfFortunePlayer {
-    private Random random = new Random();
-    private Set<Character> guessedLetters = new HashSet<>();
+    private static final int LETTERS = 26;
 
+    private RandomGenerator random;
+    // letters[0..next) are the guesses so far, letters[next..26) the letters still unguessed
+    private final char[] letters = new char[LETTERS];
+    private int next;
+
+    public Random2Guesser() {
+        this(new SplittableRandom());
+    }
+
+    // Seeded constructor so tournament runs can be reproduced
+    public Random2Guesser(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    public Random2Guesser(RandomGenerator random) {
+        this.random = random;
+        reset();
+    }
+
+    // One step of a Fisher-Yates shuffle: a uniform pick among the unguessed letters, in O(1)
     @Override
     public char nextGuess() {
-        char guess;
-        do {
-            guess = (char) ('a' + random.nextInt(26));
-        } while (guessedLetters.contains(guess)); // Ensure no repeat guesses
-        guessedLetters.add(guess);
+        if (next == LETTERS) {
+            throw new IllegalStateException("All " + LETTERS + " letters have already been guessed");
+        }
+        int pick = next + random.nextInt(LETTERS - next);
+        char guess = letters[pick];
+        letters[pick] = letters[next];
+        letters[next++] = guess;
         return guess;
     }
 
+    @Override
+    public void reseed(RandomGenerator random) {
+        this.random = random;
+    }
+
     @Override
     public String playerId() {
         return "SmartGuesser";
@@ -23,6 +48,10 @@ public class Random2Guesser implements WheelOfFortunePlayer {
 
     @Override
     public void reset() {
-        guessedLetters.clear(); // Clear guessed letters at the start of each game
+        // Start each game from the same alphabet, so a game's guesses depend only on the generator
+        for (int i = 0; i < LETTERS; i++) {
+            letters[i] = (char) ('a' + i);
+        }
+        next = 0;
     }
 }
@@ -23,6 +23,16 @@ public class Random3Guesser implements WheelOfFortunePlayer {
         return "SmarterGuesser";
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    @Override
+    public boolean isFixedOrder() {
+        return true;
+    }
+
     @Override
     public void reset() {
         guessedLetters.clear(); // Clear guessed letters at the start of each game
@@ -0,0 +1,14 @@
+/**
+ * Discards every game message, for headless batch simulations.
+ */
+public class SilentGameListener implements GameListener {
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void message(String text) {
+        // Nobody is listening
+    }
+}
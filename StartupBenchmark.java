@@ -0,0 +1,108 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures how long a fresh JVM takes to get to its first games, launched cold and from
+ * the GameSnapshot files, and with an AppCDS archive when one is given. Every launch is
+ * a new process that opens a phrase corpus with its pattern index and the 6-color,
+ * length-4 Mastermind code space, then plays one game of each. The report gives the
+ * wall time of the whole launch and the time the process spent loading, median and best.
+ *
+ * Usage: java -cp games.jar StartupBenchmark [phraseFile] [launches] [archive.jsa]
+ * The archive should be recorded with a training launch of this benchmark, e.g.
+ * java -XX:ArchiveClassesAtExit=startup.jsa -cp games.jar StartupBenchmark launch snapshot WOFPhrases.txt
+ */
+public class StartupBenchmark {
+    private static final int COLORS = 6;
+    private static final int CODE_LENGTH = 4;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 3 && args[0].equals("launch")) {
+            launch(args[1].equals("snapshot"), Paths.get(args[2]));
+            return;
+        }
+        String phraseFile = args.length > 0 ? args[0] : "WOFPhrases.txt";
+        int launches = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        String archive = args.length > 2 ? args[2] : null;
+
+        // Make sure the snapshot launches have something to read
+        CorpusSnapshot.write(Paths.get(phraseFile));
+        new MastermindCodes(COLORS, CODE_LENGTH).write(MastermindCodes.snapshotFile(COLORS, CODE_LENGTH));
+
+        System.out.printf("%-20s %14s %14s %14s %14s%n", "launch", "wall median", "wall best", "load median", "load best");
+        measure("cold", phraseFile, launches, null);
+        measure("snapshot", phraseFile, launches, null);
+        if (archive != null) {
+            measure("cold+AppCDS", phraseFile, launches, archive);
+            measure("snapshot+AppCDS", phraseFile, launches, archive);
+        }
+    }
+
+    private static void measure(String name, String phraseFile, int launches, String archive)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(Arrays.asList(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path")));
+        if (archive != null) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command.addAll(Arrays.asList(StartupBenchmark.class.getName(), "launch",
+                name.startsWith("snapshot") ? "snapshot" : "cold", phraseFile));
+
+        List<Double> wallMillis = new ArrayList<>();
+        List<Double> loadMillis = new ArrayList<>();
+        for (int i = 0; i < launches; i++) {
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            String output;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                output = reader.readLine();
+            }
+            if (process.waitFor() != 0 || output == null) {
+                throw new IllegalStateException(name + " launch failed: " + output);
+            }
+            wallMillis.add((System.nanoTime() - start) / 1e6);
+            loadMillis.add(Long.parseLong(output.trim()) / 1e3);
+        }
+        System.out.printf("%-20s %11.1f ms %11.1f ms %11.1f ms %11.1f ms%n", name,
+                median(wallMillis), Collections.min(wallMillis), median(loadMillis), Collections.min(loadMillis));
+    }
+
+    private static double median(List<Double> values) {
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    // The child process: load, play one game of each, print the microseconds it took
+    private static void launch(boolean fromSnapshot, Path phraseFile) throws IOException {
+        long start = System.nanoTime();
+        PhraseCorpus corpus = fromSnapshot
+                ? CorpusSnapshot.read(phraseFile, CorpusSnapshot.snapshotFile(phraseFile)) : new PhraseCorpus(phraseFile);
+        MastermindCodes codes = fromSnapshot
+                ? MastermindCodes.read(MastermindCodes.snapshotFile(COLORS, CODE_LENGTH))
+                : new MastermindCodes(COLORS, CODE_LENGTH);
+
+        List<WheelOfFortunePlayer> players = Arrays.asList(new FrequencyGuesser(corpus.patternIndex()));
+        WheelOfFortuneAIGame wheel = new WheelOfFortuneAIGame(corpus, players, 0, Math.min(1, corpus.size()));
+        wheel.setListener(new SilentGameListener());
+        long sink = wheel.playAll().size();
+        MastermindAIGame mastermind = new MastermindAIGame(20, codes, new KnuthSolver(codes), 0, 1);
+        mastermind.setListener(new SilentGameListener());
+        sink += mastermind.playAll().size();
+
+        System.out.println((System.nanoTime() - start) / 1000);
+        if (sink < 0) {
+            System.out.println(sink); // Keeps the games from being optimized away
+        }
+    }
+}
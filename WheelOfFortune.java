@@ -1,25 +1,32 @@
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.List;
-import java.util.Random;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 public abstract class WheelOfFortune extends Game {
     protected List<String> phrases;
-    private Random random = new Random();
+    private RandomGenerator random = new SplittableRandom();
+    private PhraseShuffle shuffle;
 
     public WheelOfFortune() {
         this.phrases = new ArrayList<>();
         loadPhrasesFromFile("WOFPhrases.txt");
+        this.shuffle = new PhraseShuffle(phrases.size());
+    }
+
+    // Plays over phrases that are already loaded, e.g. a corpus shared by many games
+    protected WheelOfFortune(List<String> phrases) {
+        this.phrases = phrases;
+        this.shuffle = new PhraseShuffle(phrases.size());
     }
 
-    // Load phrases from a file
+    // Map the phrase file, through its snapshot if one is up to date; phrases are decoded from it on demand
     private void loadPhrasesFromFile(String fileName) {
         try {
-            List<String> filePhrases = Files.readAllLines(Paths.get(fileName));
-            phrases.addAll(filePhrases);
-            System.out.println("Loaded phrases from file: " + filePhrases.size() + " phrases added.");
+            phrases = CorpusSnapshot.open(Paths.get(fileName));
+            listener.message("Loaded phrases from file: " + phrases.size() + " phrases added.");
         } catch (IOException e) {
             System.err.println("Error reading phrases file: " + e.getMessage());
         }
@@ -31,12 +38,41 @@ public abstract class WheelOfFortune extends Game {
     // Abstract method playNext that also needs to be implemented
     protected abstract boolean playNext();
 
-    // Method to get a random phrase
+    // Method to get a random phrase; each phrase is handed out at most once, in O(1)
     protected String randomPhrase() {
-        if (phrases.isEmpty()) {
-            return null;
+        int chosen = shuffle.next(random);
+        return chosen < 0 ? null : phrases.get(chosen);
+    }
+
+    // Seeds the phrase order, so a sequence of games can be replayed
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    // Whether randomPhrase still has unused phrases to hand out
+    protected boolean hasRemainingPhrases() {
+        return shuffle.hasNext();
+    }
+
+    // Compiled form of a loaded phrase, cached by the corpus when the phrases come from one
+    protected CompiledPhrase compiledPhrase(int index) {
+        if (phrases instanceof PhraseCorpus) {
+            return ((PhraseCorpus) phrases).compiled(index);
         }
-        return phrases.remove(random.nextInt(phrases.size()));
+        return CompiledPhrase.compile(phrases.get(index));
+    }
+
+    // Pattern index of the loaded phrases, shared through the corpus when the phrases come from one
+    protected PhrasePatternIndex patternIndex() {
+        if (phrases instanceof PhraseCorpus) {
+            return ((PhraseCorpus) phrases).patternIndex();
+        }
+        return new PhrasePatternIndex(phrases);
+    }
+
+    // Identifies the phrase list, for keying cached results; a corpus file is versioned by its contents
+    protected long corpusVersion() {
+        return PhraseCorpus.version(phrases);
     }
 
     // Example processGuess method
@@ -64,5 +100,33 @@ public abstract class WheelOfFortune extends Game {
         return hidden.toString();
     }
 
+    // Builds the hidden phrase for a set of guessed letters held as a bitmask
+    protected String getHiddenPhrase(String phrase, int guessedLetters) {
+        StringBuilder hidden = new StringBuilder(phrase.length());
+        for (int i = 0; i < phrase.length(); i++) {
+            char c = phrase.charAt(i);
+            if (Character.isLetter(c) && (guessedLetters & letterBit(c)) == 0) {
+                hidden.append('*');
+            } else {
+                hidden.append(c);
+            }
+        }
+        return hidden.toString();
+    }
+
+    // Bit for a lowercase letter in a 26-bit letter mask, or 0 for any other character
+    protected static int letterBit(char c) {
+        return c >= 'a' && c <= 'z' ? 1 << (c - 'a') : 0;
+    }
+
+    // Mask of the lowercase letters a phrase contains
+    protected static int letterMask(String phrase) {
+        int mask = 0;
+        for (int i = 0; i < phrase.length(); i++) {
+            mask |= letterBit(phrase.charAt(i));
+        }
+        return mask;
+    }
+
     protected abstract char getGuess(String previousGuesses);
 }
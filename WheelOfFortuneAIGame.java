@@ -1,9 +1,6 @@
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Arrays;
+import java.util.stream.Stream;
 
 /**
  * Represents an AI-based Wheel of Fortune game where multiple AI players
@@ -13,44 +10,99 @@ public class WheelOfFortuneAIGame extends WheelOfFortune {
     private List<WheelOfFortunePlayer> players;
     private AllGamesRecord allGamesRecord;
     private List<String> originalPhrases;
+    private GameMetrics metrics;
+    private GameResultCache resultCache;
+    private long corpusVersion;
+    private int firstPhrase;
+    private int endPhrase;
+    private int nextGame; // Position in the player-major order of (player, phrase) games
+    private LockstepSimulator lockstep; // Letter masks of the range, built on first use
 
     /**
-     * Initializes the AI game, setting up AI players and loading phrases from a file.
+     * Initializes the AI game, setting up AI players over the phrases loaded from the file.
      */
     public WheelOfFortuneAIGame() {
-        this.players = Arrays.asList(new Random1Guesser(), new Random2Guesser(), new Random3Guesser());
         this.allGamesRecord = new AllGamesRecord();
-        this.originalPhrases = loadPhrasesFromFile("WOFPhrases.txt");
+        this.originalPhrases = phrases; // Shares the corpus mapped by WheelOfFortune
+        this.players = Arrays.asList(new Random1Guesser(), new Random2Guesser(), new Random3Guesser(),
+                new FrequencyGuesser(patternIndex()));
+        this.endPhrase = originalPhrases.size();
     }
 
     /**
-     * Loads phrases from a specified file into a list.
+     * Initializes the AI game with the given players over already loaded phrases.
      *
-     * @param fileName the name of the file containing phrases.
-     * @return a list of phrases loaded from the file.
+     * @param phrases the phrases to play, shared and never modified.
+     * @param players the AI players, each playing every phrase.
      */
-    private List<String> loadPhrasesFromFile(String fileName) {
-        List<String> phrases = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(fileName))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                phrases.add(line.trim());
-            }
-        } catch (IOException e) {
-            System.err.println("Error loading phrases: " + e.getMessage());
+    public WheelOfFortuneAIGame(List<String> phrases, List<WheelOfFortunePlayer> players) {
+        this(phrases, players, 0, phrases.size());
+    }
+
+    /**
+     * Initializes the AI game with the given players over a range of already loaded phrases,
+     * so several games can split one corpus between them.
+     *
+     * @param phrases the phrases to play, shared and never modified.
+     * @param players the AI players, each playing every phrase in the range.
+     * @param firstPhrase the index of the first phrase to play.
+     * @param endPhrase the index after the last phrase to play.
+     */
+    public WheelOfFortuneAIGame(List<String> phrases, List<WheelOfFortunePlayer> players, int firstPhrase, int endPhrase) {
+        super(phrases);
+        this.allGamesRecord = new AllGamesRecord();
+        this.originalPhrases = phrases;
+        this.players = players;
+        this.firstPhrase = firstPhrase;
+        this.endPhrase = endPhrase;
+    }
+
+    /**
+     * Returns the phrases loaded for this game.
+     *
+     * @return the list of phrases every player attempts to guess.
+     */
+    protected List<String> getPhrases() {
+        return originalPhrases;
+    }
+
+    /**
+     * Turns on instrumentation: from now on every game records its guess latencies,
+     * guess count and allocated bytes. Games are not timed while no metrics are set.
+     *
+     * @param metrics the metrics to record into, or null to stop recording.
+     */
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Turns on result caching: games of deterministic players are looked up in the cache
+     * first, and only simulated, then stored, when the cache has no result for them.
+     * Cached games send no listener messages and record no metrics.
+     *
+     * @param resultCache the cache to use, or null to always simulate.
+     */
+    public void setResultCache(GameResultCache resultCache) {
+        this.resultCache = resultCache;
+        if (resultCache != null && corpusVersion == 0) {
+            corpusVersion = corpusVersion();
         }
-        return phrases;
     }
 
     /**
-     * Placeholder for the abstract `play` method; this method is overridden
-     * by the main play logic that accepts specific players and phrases.
+     * Plays the next game: every phrase in the range for the first player, then for the
+     * next player, and so on, the same order as playAll.
      *
-     * @return null as this method is not used in this implementation.
+     * @return a GameRecord with the player's score.
      */
     @Override
     protected GameRecord play() {
-        return null; // Placeholder to fulfill abstract requirement
+        int phraseCount = endPhrase - firstPhrase;
+        WheelOfFortunePlayer player = players.get(nextGame / phraseCount);
+        int phrase = firstPhrase + nextGame % phraseCount;
+        nextGame++;
+        return play(player, compiledPhrase(phrase));
     }
 
     /**
@@ -61,29 +113,86 @@ public class WheelOfFortuneAIGame extends WheelOfFortune {
      * @return a GameRecord with the player's score.
      */
     protected GameRecord play(WheelOfFortunePlayer player, String phrase) {
-        StringBuilder hiddenPhrase = new StringBuilder(getHiddenPhrase(phrase, new ArrayList<>()));
-        List<Character> guesses = new ArrayList<>();
+        return play(player, CompiledPhrase.compile(phrase));
+    }
+
+    /**
+     * Executes a game round for a specific player on a compiled phrase.
+     * Progress is tracked with 26-bit letter masks, so checking for completion is O(1)
+     * and a guess allocates nothing; the hidden phrase is only kept when the listener
+     * is enabled or the player reads the board, and a hit only touches the positions
+     * of the guessed letter.
+     *
+     * @param player the AI player making guesses.
+     * @param phrase the compiled phrase the AI player tries to guess.
+     * @return a GameRecord with the player's score.
+     */
+    protected GameRecord play(WheelOfFortunePlayer player, CompiledPhrase phrase) {
+        GameResultCache cache = resultCache;
+        long strategy = cache != null ? cache.strategyKey(player) : 0;
+        if (strategy != 0) {
+            long cached = cache.lookup(strategy, corpusVersion, phrase.hash());
+            if (cached != -1) {
+                return new GameRecord(GameResultCache.score(cached), player.playerId(), GameResultCache.guessCount(cached));
+            }
+        }
+
+        int phraseLetters = phrase.letterMask();
+        int guessedLetters = 0;
         int guessCount = 0;
         player.reset(); // Reset player state before starting a new game
+        boolean verbose = listener.isEnabled();
+        GameMetrics gameMetrics = metrics;
+        PlayerMetrics playerMetrics = gameMetrics != null ? gameMetrics.player(player.playerId()) : null;
+        long allocatedBefore = playerMetrics != null ? GameMetrics.currentThreadAllocatedBytes() : 0;
 
-        System.out.println("AI Player " + player.playerId() + " is guessing!");
-
-        // Loop until the phrase is fully guessed or attempts are exhausted
-        while (hiddenPhrase.toString().contains("*")) {
-            char guess = player.nextGuess();
-            guesses.add(guess);
+        StringBuilder hiddenPhrase = null;
+        if (verbose || player.readsBoard()) {
+            hiddenPhrase = new StringBuilder(getHiddenPhrase(phrase.text(), guessedLetters));
+        }
+        if (verbose) {
+            listener.message("AI Player " + player.playerId() + " is guessing!");
+        }
 
-            if (processGuess(guess, phrase, hiddenPhrase)) {
-                System.out.println("Good guess! The phrase now: " + hiddenPhrase);
+        // Loop until every letter in the phrase has been guessed
+        while ((phraseLetters & ~guessedLetters) != 0) {
+            char guess;
+            if (playerMetrics != null) {
+                long start = System.nanoTime();
+                guess = hiddenPhrase != null ? player.nextGuess(hiddenPhrase) : player.nextGuess();
+                playerMetrics.recordGuess(System.nanoTime() - start);
             } else {
-                System.out.println("Incorrect guess.");
+                guess = hiddenPhrase != null ? player.nextGuess(hiddenPhrase) : player.nextGuess();
+            }
+            int letter = letterBit(guess);
+            guessedLetters |= letter;
+
+            boolean found = (phraseLetters & letter) != 0;
+            if (found && hiddenPhrase != null) {
+                phrase.reveal(guess, hiddenPhrase);
+            }
+            if (verbose) {
+                if (found) {
+                    listener.message("Good guess! The phrase now: " + hiddenPhrase);
+                } else {
+                    listener.message("Incorrect guess.");
+                }
             }
             guessCount++;
         }
 
         int score = 100 - guessCount; // Example scoring: fewer guesses yield a higher score
-        System.out.println("Debug: Player " + player.playerId() + " completed with score: " + score);
-        return new GameRecord(score, player.playerId());
+        if (playerMetrics != null) {
+            long allocated = allocatedBefore < 0 ? -1 : GameMetrics.currentThreadAllocatedBytes() - allocatedBefore;
+            gameMetrics.recordGame(playerMetrics, guessCount, allocated);
+        }
+        if (verbose) {
+            listener.message("Debug: Player " + player.playerId() + " completed with score: " + score);
+        }
+        if (strategy != 0) {
+            cache.store(strategy, corpusVersion, phrase.hash(), score, guessCount);
+        }
+        return new GameRecord(score, player.playerId(), guessCount);
     }
 
     /**
@@ -99,33 +208,66 @@ public class WheelOfFortuneAIGame extends WheelOfFortune {
     }
 
     /**
-     * Determines if there are more phrases to guess.
+     * Determines if there are more (player, phrase) games to play.
      *
-     * @return true if there are unguessed phrases, false otherwise.
+     * @return true if play() has games left, false otherwise.
      */
     @Override
     protected boolean playNext() {
-        return !originalPhrases.isEmpty();
+        return nextGame < players.size() * (endPhrase - firstPhrase);
     }
 
     /**
      * Plays through all phrases for each player independently, storing each game's record.
+     * A fixed-order player plays the whole range in lockstep, with the same records, when
+     * nothing needs to watch its individual games: no listener and no metrics.
      *
      * @return an AllGamesRecord containing the results for all games played.
      */
     @Override
     public AllGamesRecord playAll() {
-        for (WheelOfFortunePlayer player : players) {
-            List<String> phrasesCopy = new ArrayList<>(originalPhrases);
-            for (String phrase : phrasesCopy) {
-                GameRecord record = play(player, phrase);
-                allGamesRecord.add(record);
-                System.out.println("Debug: Player " + player.playerId() + " finished with a score of: " + record.getScore());
+        nextGame = 0;
+        int phraseCount = endPhrase - firstPhrase;
+        while (playNext()) {
+            WheelOfFortunePlayer player = players.get(nextGame / phraseCount);
+            if (nextGame % phraseCount == 0 && player.isFixedOrder() && !listener.isEnabled() && metrics == null) {
+                allGamesRecord.addAll(lockstep().play(player));
+                nextGame += phraseCount;
+                continue;
+            }
+            GameRecord record = play();
+            allGamesRecord.add(record);
+            if (listener.isEnabled()) {
+                listener.message("Debug: Player " + record.getPlayerId() + " finished with a score of: " + record.getScore());
             }
         }
         return allGamesRecord;
     }
 
+    private LockstepSimulator lockstep() {
+        if (lockstep == null) {
+            int[] letterMasks = new int[endPhrase - firstPhrase];
+            for (int i = 0; i < letterMasks.length; i++) {
+                letterMasks[i] = compiledPhrase(firstPhrase + i).letterMask();
+            }
+            lockstep = new LockstepSimulator(letterMasks);
+        }
+        return lockstep;
+    }
+
+    /**
+     * Streams the same games as playAll, lazily, through Game.stream: each (player, phrase)
+     * game is played when its record is pulled, and no records are kept. Like playAll, a
+     * new stream starts again from the first game.
+     *
+     * @return a stream of the records for all games, player by player.
+     */
+    @Override
+    public Stream<GameRecord> stream() {
+        nextGame = 0;
+        return super.stream();
+    }
+
     /**
      * Main method to initialize and run the AI Wheel of Fortune game,
      * print game statistics and high scores.
@@ -134,7 +276,12 @@ public class WheelOfFortuneAIGame extends WheelOfFortune {
      */
     public static void main(String[] args) {
         WheelOfFortuneAIGame aiGame = new WheelOfFortuneAIGame();
-        AllGamesRecord record = aiGame.playAll(); // Run the full game set for all players
+        AllGamesRecord record;
+        // Every guess is reported, so messages go through a writer thread; closing it prints the last ones
+        try (AsyncGameListener listener = new AsyncGameListener()) {
+            aiGame.setListener(listener);
+            record = aiGame.playAll(); // Run the full game set for all players
+        }
 
         System.out.println("\nThe Average Score of All Games: " + record.average());
         System.out.println("High Scores by Player:");
@@ -0,0 +1,27 @@
+import java.util.Collections;
+import java.util.random.RandomGenerator;
+
+/**
+ * Runs WheelOfFortuneAIGame in the GameHarness as "wheel": a task plays one player over
+ * its shard of the corpus, and all tasks share the corpus and its compiled phrases.
+ */
+public class WheelOfFortuneGameProvider implements GameProvider {
+    @Override
+    public String name() {
+        return "wheel";
+    }
+
+    @Override
+    public Class<?> playerType() {
+        return WheelOfFortunePlayer.class;
+    }
+
+    @Override
+    public Game newGame(GameRunContext context, String player, int shard, int shardCount, RandomGenerator random) {
+        PhraseCorpus phrases = context.corpus();
+        int firstPhrase = (int) ((long) phrases.size() * shard / shardCount);
+        int endPhrase = (int) ((long) phrases.size() * (shard + 1) / shardCount);
+        WheelOfFortunePlayer wheelPlayer = context.newPlayer(player, WheelOfFortunePlayer.class, random);
+        return new WheelOfFortuneAIGame(phrases, Collections.singletonList(wheelPlayer), firstPhrase, endPhrase);
+    }
+}
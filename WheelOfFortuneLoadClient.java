@@ -0,0 +1,189 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+/**
+ * Load generator for WheelOfFortuneServer. It opens many concurrent sessions from one
+ * selector thread; every session plays a few games with a Random2Guesser, and the time
+ * from sending each guess to receiving its response is recorded in a LatencyHistogram.
+ * Latencies include queueing in this client, so they are an upper bound on the server's.
+ *
+ * Start a server first, e.g. java WheelOfFortuneServer 4444, then
+ * java WheelOfFortuneLoadClient localhost 4444 10000 3
+ */
+public class WheelOfFortuneLoadClient {
+    private final Selector selector;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final int gamesPerSession;
+    private int openSessions;
+    private long games;
+    private long errors;
+
+    public WheelOfFortuneLoadClient(int gamesPerSession) throws IOException {
+        this.selector = Selector.open();
+        this.gamesPerSession = gamesPerSession;
+    }
+
+    /**
+     * Opens the sessions and runs until every one of them has finished.
+     *
+     * @param address the server address.
+     * @param sessions the number of concurrent sessions.
+     * @param seed the seed every session's guesser is split from.
+     * @throws IOException if the selector fails.
+     */
+    public void run(InetSocketAddress address, int sessions, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < sessions; i++) {
+            SocketChannel channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.connect(address);
+            channel.register(selector, SelectionKey.OP_CONNECT, new Session(channel, new Random2Guesser(random.split())));
+            openSessions++;
+        }
+        while (openSessions > 0) {
+            selector.select();
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Session session = (Session) key.attachment();
+                try {
+                    if (key.isConnectable()) {
+                        session.channel.finishConnect();
+                        key.interestOps(SelectionKey.OP_READ);
+                    } else if (key.isReadable()) {
+                        session.read(key);
+                    }
+                } catch (IOException e) {
+                    errors++;
+                    session.close(key);
+                }
+            }
+        }
+        selector.close();
+    }
+
+    /**
+     * One simulated player: reads server lines and answers each with the next guess.
+     */
+    private class Session {
+        private final SocketChannel channel;
+        private final Random2Guesser guesser;
+        private ByteBuffer input = ByteBuffer.allocate(512);
+        private long sentAt;
+        private int gamesLeft = gamesPerSession;
+        private boolean closed;
+
+        Session(SocketChannel channel, Random2Guesser guesser) {
+            this.channel = channel;
+            this.guesser = guesser;
+        }
+
+        void read(SelectionKey key) throws IOException {
+            if (channel.read(input) < 0) {
+                close(key);
+                return;
+            }
+            input.flip();
+            int lineStart = 0;
+            for (int i = 0; i < input.limit() && !closed; i++) {
+                if (input.get(i) == '\n') {
+                    respond(key, new String(input.array(), lineStart, i - lineStart, StandardCharsets.UTF_8));
+                    lineStart = i + 1;
+                }
+            }
+            input.position(lineStart);
+            input.compact();
+            if (!input.hasRemaining()) {
+                // A board longer than the buffer; keep the partial line and make room for the rest
+                ByteBuffer larger = ByteBuffer.allocate(input.capacity() * 2);
+                input.flip();
+                larger.put(input);
+                input = larger;
+            }
+        }
+
+        private void respond(SelectionKey key, String line) throws IOException {
+            if (line.startsWith("PHRASE")) {
+                guesser.reset();
+                guess();
+            } else if (line.startsWith("HIT") || line.startsWith("MISS")) {
+                latency.record(System.nanoTime() - sentAt);
+                guess();
+            } else if (line.startsWith("WIN") || line.startsWith("LOSE")) {
+                latency.record(System.nanoTime() - sentAt);
+                games++;
+                send(--gamesLeft > 0 ? "NEW" : "QUIT");
+            } else if (line.startsWith("BYE")) {
+                close(key);
+            } else {
+                errors++;
+                send("QUIT");
+            }
+        }
+
+        private void guess() throws IOException {
+            sentAt = System.nanoTime();
+            send(String.valueOf(guesser.nextGuess()));
+        }
+
+        // Requests are a few bytes and sessions wait for each answer, so the socket buffer always takes them
+        private void send(String line) throws IOException {
+            ByteBuffer bytes = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+
+        void close(SelectionKey key) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            openSessions--;
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+
+    /**
+     * Drives a server with concurrent sessions and prints throughput and guess latency percentiles.
+     *
+     * @param args host (default localhost), port (default 4444), sessions (default 10000),
+     *             games per session (default 3), seed (default 1).
+     * @throws IOException if the sessions cannot be opened.
+     */
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 4444;
+        int sessions = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int gamesPerSession = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+
+        WheelOfFortuneLoadClient client = new WheelOfFortuneLoadClient(gamesPerSession);
+        long start = System.nanoTime();
+        client.run(new InetSocketAddress(host, port), sessions, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        LatencyHistogram latency = client.latency;
+        System.out.printf("Sessions: %d, games: %d, guesses: %d, errors: %d in %.2f s%n",
+                sessions, client.games, latency.count(), client.errors, seconds);
+        System.out.printf("Throughput: %.0f guesses/s, %.0f games/s%n", latency.count() / seconds, client.games / seconds);
+        System.out.printf("Guess latency (us): mean %.1f, p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f%n",
+                latency.mean() / 1e3, latency.percentile(50) / 1e3, latency.percentile(90) / 1e3,
+                latency.percentile(99) / 1e3, latency.percentile(99.9) / 1e3, latency.max() / 1e3);
+    }
+}
@@ -1,5 +1,32 @@
+import java.util.random.RandomGenerator;
+
 public interface WheelOfFortunePlayer {
     char nextGuess();
     String playerId();
     void reset();
+
+    // Guess with the current board, unrevealed letters shown as '*'; only called when readsBoard() is true
+    default char nextGuess(CharSequence hiddenPhrase) {
+        return nextGuess();
+    }
+
+    // Whether this player looks at the board, so the game has to keep it up to date
+    default boolean readsBoard() {
+        return false;
+    }
+
+    // Replaces the player's random source, e.g. with a per-game generator; players without randomness ignore it
+    default void reseed(RandomGenerator random) {
+    }
+
+    // Whether the same phrase always gets the same guesses, so a game's result can be cached
+    default boolean isDeterministic() {
+        return false;
+    }
+
+    // Whether every game gets the same guesses in the same order, whatever the phrase or board,
+    // so LockstepSimulator can play many games on one guess sequence
+    default boolean isFixedOrder() {
+        return false;
+    }
 }
\ No newline at end of file
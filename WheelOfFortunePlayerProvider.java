@@ -0,0 +1,54 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * The built-in Wheel of Fortune guessers: random1, random2, random3, frequency and entropy.
+ * The frequency guessers of a run share the pattern index of the run's corpus, and
+ * the entropy guessers one WordDictionary, read from the file named by the "dictionary"
+ * option when it is given and built from the corpus otherwise.
+ */
+public class WheelOfFortunePlayerProvider implements PlayerProvider<WheelOfFortunePlayer> {
+    @Override
+    public Class<WheelOfFortunePlayer> playerType() {
+        return WheelOfFortunePlayer.class;
+    }
+
+    @Override
+    public List<String> names() {
+        return Arrays.asList("random1", "random2", "random3", "frequency", "entropy");
+    }
+
+    @Override
+    public WheelOfFortunePlayer newPlayer(String name, GameRunContext context, RandomGenerator random) {
+        switch (name) {
+            case "random1":
+                return new Random1Guesser(random);
+            case "random2":
+                return new Random2Guesser(random);
+            case "random3":
+                return new Random3Guesser();
+            case "frequency":
+                return new FrequencyGuesser(context.corpus().patternIndex());
+            case "entropy":
+                return new EntropyGuesser(context.shared("wordDictionary", () -> dictionary(context)));
+            default:
+                throw new IllegalArgumentException("Unknown Wheel of Fortune player: " + name);
+        }
+    }
+
+    private static WordDictionary dictionary(GameRunContext context) {
+        String file = context.spec().option("dictionary", null);
+        if (file == null) {
+            return WordDictionary.fromPhrases(context.corpus());
+        }
+        try {
+            return WordDictionary.load(Paths.get(file), context.corpus());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write dictionary " + file, e);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Serves Wheel of Fortune to many remote players at once over a line-based TCP protocol
+ * (see WheelOfFortuneSession). An acceptor thread hands each connection to one of a few
+ * NIO selector workers; a worker runs all of its sessions on its own thread, so session
+ * state and the worker's game records are never shared. All sessions read one PhraseCorpus.
+ */
+public class WheelOfFortuneServer implements AutoCloseable {
+    private static final int BACKLOG = 4096;
+    private static final int MAX_LINE = 256;
+
+    private final PhraseCorpus corpus;
+    private final Worker[] workers;
+    private final SplittableRandom random;
+    private ServerSocketChannel server;
+    private Thread acceptor;
+    private volatile boolean running;
+
+    /**
+     * Creates a server; call start() to listen.
+     *
+     * @param corpus the phrases shared by every session.
+     * @param workerCount the number of selector threads.
+     * @param seed the seed every session's generator is split from.
+     */
+    public WheelOfFortuneServer(PhraseCorpus corpus, int workerCount, long seed) {
+        this.corpus = corpus;
+        this.workers = new Worker[workerCount];
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Binds the port and starts the acceptor and worker threads.
+     *
+     * @param address the address to listen on; port 0 picks a free port.
+     * @return the port the server listens on.
+     * @throws IOException if the port cannot be bound.
+     */
+    public int start(InetSocketAddress address) throws IOException {
+        server = ServerSocketChannel.open();
+        server.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        server.bind(address, BACKLOG);
+        running = true;
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(Selector.open());
+            workers[i].thread = new Thread(workers[i], "game-server-worker-" + i);
+            workers[i].thread.start();
+        }
+        acceptor = new Thread(this::accept, "game-server-acceptor");
+        acceptor.start();
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    // Blocking accepts, spread round-robin over the workers; sessions get generators split in accept order
+    private void accept() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = server.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Worker worker = workers[next];
+                next = (next + 1) % workers.length;
+                worker.pending.add(new Connection(channel, random.split(), worker.records));
+                worker.selector.wakeup();
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * One selector thread and the sessions registered with it.
+     */
+    private class Worker implements Runnable {
+        private final Selector selector;
+        private final Queue<Connection> pending = new ConcurrentLinkedQueue<>();
+        private final AllGamesRecord records = new AllGamesRecord();
+        private Thread thread;
+
+        Worker(Selector selector) {
+            this.selector = selector;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    Connection connection;
+                    while ((connection = pending.poll()) != null) {
+                        connection.register(selector);
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        ((Connection) key.attachment()).handle(key);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Worker stopped: " + e.getMessage());
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    ((Connection) key.attachment()).close(key);
+                }
+                Connection connection;
+                while ((connection = pending.poll()) != null) {
+                    connection.closeQuietly();
+                }
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    // Nothing left to release
+                }
+            }
+        }
+    }
+
+    /**
+     * A client connection: its session, the bytes of a partly received line and the
+     * responses not yet written.
+     */
+    private class Connection {
+        private final SocketChannel channel;
+        private final WheelOfFortuneSession session;
+        private final ByteBuffer input = ByteBuffer.allocate(MAX_LINE);
+        private ByteBuffer output = ByteBuffer.allocate(MAX_LINE);
+
+        Connection(SocketChannel channel, SplittableRandom random, AllGamesRecord records) {
+            this.channel = channel;
+            this.session = new WheelOfFortuneSession(corpus, random, records);
+        }
+
+        void register(Selector selector) {
+            try {
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ, this);
+                respond(session.start());
+                flush(key);
+            } catch (IOException e) {
+                closeQuietly();
+            }
+        }
+
+        void handle(SelectionKey key) {
+            try {
+                if (key.isReadable()) {
+                    read(key);
+                }
+                if (key.isValid() && key.isWritable()) {
+                    flush(key);
+                }
+            } catch (IOException e) {
+                close(key);
+            }
+        }
+
+        // Answers every complete line received; a line longer than MAX_LINE is rejected and dropped
+        private void read(SelectionKey key) throws IOException {
+            if (channel.read(input) < 0) {
+                close(key);
+                return;
+            }
+            input.flip();
+            int lineStart = 0;
+            for (int i = 0; i < input.limit() && !session.isClosed(); i++) {
+                if (input.get(i) == '\n') {
+                    String line = new String(input.array(), lineStart, i - lineStart, StandardCharsets.UTF_8);
+                    respond(session.handle(line));
+                    lineStart = i + 1;
+                }
+            }
+            input.position(lineStart);
+            input.compact();
+            if (!input.hasRemaining()) {
+                input.clear();
+                respond("ERROR Line too long");
+            }
+            flush(key);
+        }
+
+        private void respond(String line) {
+            byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+            if (output.remaining() < bytes.length) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(output.capacity() * 2, output.position() + bytes.length));
+                output.flip();
+                larger.put(output);
+                output = larger;
+            }
+            output.put(bytes);
+        }
+
+        // Writes what the socket takes now and waits for OP_WRITE for the rest
+        private void flush(SelectionKey key) throws IOException {
+            output.flip();
+            channel.write(output);
+            output.compact();
+            if (output.position() > 0) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            } else if (session.isClosed()) {
+                close(key);
+            } else {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        void close(SelectionKey key) {
+            key.cancel();
+            closeQuietly();
+        }
+
+        private void closeQuietly() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+
+    /**
+     * Stops accepting, closes every connection and waits for the worker threads.
+     *
+     * @return the records of every game finished on the server.
+     * @throws InterruptedException if interrupted while waiting for the threads.
+     */
+    public AllGamesRecord stop() throws InterruptedException {
+        running = false;
+        try {
+            server.close();
+        } catch (IOException e) {
+            // The acceptor sees running == false either way
+        }
+        acceptor.join();
+        AllGamesRecord records = new AllGamesRecord();
+        for (Worker worker : workers) {
+            worker.selector.wakeup();
+            worker.thread.join();
+            records.addAll(worker.records);
+        }
+        return records;
+    }
+
+    // Stops the server if it is still running; an interrupt while waiting is kept on the thread
+    @Override
+    public void close() {
+        if (running) {
+            try {
+                stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Runs the server until the process is stopped, then prints a summary of the games played.
+     *
+     * @param args port (default 4444), phrase file (default WOFPhrases.txt),
+     *             worker threads (default one per core).
+     * @throws IOException if the phrases cannot be mapped or the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 4444;
+        String phraseFile = args.length > 1 ? args[1] : "WOFPhrases.txt";
+        int workerCount = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        PhraseCorpus corpus = CorpusSnapshot.open(Paths.get(phraseFile));
+        WheelOfFortuneServer server = new WheelOfFortuneServer(corpus, workerCount, System.nanoTime());
+        int boundPort = server.start(new InetSocketAddress(port));
+        System.out.println("Serving " + corpus.size() + " phrases on port " + boundPort + " with " + workerCount + " workers");
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                AllGamesRecord records = server.stop();
+                System.out.println("Games played: " + records.size() + ", average score: " + records.average());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+    }
+}
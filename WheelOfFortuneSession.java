@@ -0,0 +1,127 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * The state of one remote player's Wheel of Fortune games: the phrase, the board, the
+ * letters guessed and the guesses left, with the rules and scoring of
+ * WheelOfFortuneUserGame: the board hides every letter, a game is won once none is hidden
+ * and lost after MAX_INCORRECT_GUESSES misses. Guesses must be a letter from a to z,
+ * the only ones the compiled phrase can reveal. It only turns request lines into response lines, so the
+ * server can run thousands of sessions without a thread or Scanner each. Sessions share
+ * a read-only PhraseCorpus; everything else is their own, and a session is only used
+ * by one thread at a time.
+ *
+ * Protocol, one line each way:
+ *   server: PHRASE board               a new game has started
+ *   client: a single letter            server: HIT board, MISS guessesLeft board,
+ *                                              WIN score phrase, LOSE phrase or ERROR message
+ *   client: NEW                        server: PHRASE board, or BYE when the phrases ran out
+ *   client: QUIT                       server: BYE
+ */
+public class WheelOfFortuneSession {
+    private final PhraseCorpus corpus;
+    private final RandomGenerator random;
+    private final PhraseShuffle shuffle;
+    private final AllGamesRecord records;
+    private CompiledPhrase phrase;
+    private StringBuilder hiddenPhrase;
+    private int guessedLetters;
+    private int hiddenCount;
+    private int remainingGuesses;
+    private boolean closed;
+
+    /**
+     * Creates a session; call start() for the first game.
+     *
+     * @param corpus the shared phrases.
+     * @param random the session's own generator, deciding its phrase order.
+     * @param records where finished games are recorded; only touched by the session's thread.
+     */
+    public WheelOfFortuneSession(PhraseCorpus corpus, RandomGenerator random, AllGamesRecord records) {
+        this.corpus = corpus;
+        this.random = random;
+        this.shuffle = new PhraseShuffle(corpus.size());
+        this.records = records;
+    }
+
+    /**
+     * Starts a new game with a phrase this session has not played yet.
+     *
+     * @return the response line, without a line terminator.
+     */
+    public String start() {
+        int index = shuffle.next(random);
+        if (index < 0) {
+            closed = true;
+            return "BYE No phrases left";
+        }
+        phrase = corpus.compiled(index);
+        hiddenPhrase = phrase.hiddenPhrase();
+        guessedLetters = 0;
+        hiddenCount = 0;
+        for (int i = 0; i < phrase.length(); i++) {
+            if (Character.isLetter(phrase.text().charAt(i))) {
+                hiddenCount++;
+            }
+        }
+        remainingGuesses = WheelOfFortuneUserGame.MAX_INCORRECT_GUESSES;
+        return "PHRASE " + hiddenPhrase;
+    }
+
+    /**
+     * Handles one request line.
+     *
+     * @param line the request, without its line terminator.
+     * @return the response line, without a line terminator.
+     */
+    public String handle(String line) {
+        String request = line.trim().toLowerCase();
+        if (request.equals("quit")) {
+            closed = true;
+            return "BYE";
+        }
+        if (request.equals("new")) {
+            return start();
+        }
+        if (phrase == null) {
+            return "ERROR Game over, send NEW or QUIT";
+        }
+        if (request.length() != 1 || !Character.isLetter(request.charAt(0))) {
+            return "ERROR Please enter a single letter";
+        }
+        char guess = request.charAt(0);
+        int letter = WheelOfFortune.letterBit(guess);
+        if (letter == 0) {
+            return "ERROR Only the letters a to z can be guessed";
+        }
+        if ((guessedLetters & letter) != 0) {
+            return "ERROR Letter already guessed";
+        }
+        guessedLetters |= letter;
+
+        int revealed = phrase.reveal(guess, hiddenPhrase);
+        if (revealed > 0) {
+            hiddenCount -= revealed;
+            if (hiddenCount == 0) {
+                return finish(true);
+            }
+            return "HIT " + hiddenPhrase;
+        }
+        if (--remainingGuesses == 0) {
+            return finish(false);
+        }
+        return "MISS " + remainingGuesses + " " + hiddenPhrase;
+    }
+
+    private String finish(boolean won) {
+        int score = WheelOfFortuneUserGame.score(remainingGuesses);
+        records.add(score, "User", Integer.bitCount(guessedLetters)); // Repeated letters are refused, so each bit is one guess
+        String text = phrase.text();
+        phrase = null;
+        hiddenPhrase = null;
+        return won ? "WIN " + score + " " + text : "LOSE " + text;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+}
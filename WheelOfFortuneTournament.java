@@ -0,0 +1,192 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+import javax.management.JMException;
+
+/**
+ * Runs the player x phrase matrix of a WheelOfFortuneAIGame across all cores.
+ * Each task creates its own players, so guessers with mutable state are never shared
+ * between threads, and every game reseeds its player with a generator from a GameRandom,
+ * so a parallel run gives exactly the same records as a sequential one with the same seed.
+ *
+ * Tasks split the phrases, not the games: a task plays all players on each of its phrases
+ * in turn, so a phrase is compiled, or found in the corpus cache, once for every player
+ * rather than once per player pass over the corpus.
+ */
+public class WheelOfFortuneTournament {
+    private static final int GAMES_PER_TASK = 64;
+
+    private final WheelOfFortuneAIGame game;
+    private final List<Supplier<WheelOfFortunePlayer>> playerFactories;
+    private final List<String> phrases;
+    private final GameRandom random;
+
+    /**
+     * Creates a tournament over the phrases of the given game.
+     *
+     * @param game the game providing phrases and the rules for a single round.
+     * @param playerFactories factories creating one player per task and player slot.
+     * @param seed the tournament seed every per-game generator is derived from.
+     */
+    public WheelOfFortuneTournament(WheelOfFortuneAIGame game,
+                                    List<Supplier<WheelOfFortunePlayer>> playerFactories,
+                                    long seed) {
+        this.game = game;
+        this.playerFactories = playerFactories;
+        this.phrases = game.getPhrases();
+        this.random = new GameRandom(seed);
+    }
+
+    /**
+     * Plays every (player, phrase) pair on a fork-join pool. Records come back in the
+     * same order as {@link #runSequential()} produces them.
+     *
+     * @param parallelism the number of worker threads to use.
+     * @return an AllGamesRecord containing the results for all games played.
+     */
+    public AllGamesRecord run(int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return playerMajor(pool.invoke(new TournamentTask(0, phrases.size())));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays every (player, phrase) pair on the calling thread.
+     *
+     * @return an AllGamesRecord containing the results for all games played.
+     */
+    public AllGamesRecord runSequential() {
+        return playerMajor(playPhrases(0, phrases.size()));
+    }
+
+    // Plays a range of phrases phrase by phrase, keeping each player's records apart
+    private AllGamesRecord[] playPhrases(int from, int to) {
+        AllGamesRecord[] records = new AllGamesRecord[playerFactories.size()];
+        WheelOfFortunePlayer[] taskPlayers = new WheelOfFortunePlayer[playerFactories.size()];
+        for (int playerIndex = 0; playerIndex < taskPlayers.length; playerIndex++) {
+            records[playerIndex] = new AllGamesRecord();
+            taskPlayers[playerIndex] = playerFactories.get(playerIndex).get();
+        }
+        for (int phraseIndex = from; phraseIndex < to; phraseIndex++) {
+            CompiledPhrase phrase = game.compiledPhrase(phraseIndex);
+            for (int playerIndex = 0; playerIndex < taskPlayers.length; playerIndex++) {
+                WheelOfFortunePlayer player = taskPlayers[playerIndex];
+                player.reseed(random.forGame(playerIndex, phraseIndex));
+                records[playerIndex].add(game.play(player, phrase));
+            }
+        }
+        return records;
+    }
+
+    // Records player by player, matching the loop order of WheelOfFortuneAIGame.playAll
+    private static AllGamesRecord playerMajor(AllGamesRecord[] byPlayer) {
+        AllGamesRecord records = new AllGamesRecord();
+        for (AllGamesRecord playerRecords : byPlayer) {
+            records.addAll(playerRecords);
+        }
+        return records;
+    }
+
+    /**
+     * Splits a range of phrases in half until it holds about GAMES_PER_TASK games.
+     * Each task fills its own AllGamesRecords and results are merged player by player
+     * on join, so no record list is ever shared between threads.
+     */
+    @SuppressWarnings("serial") // ForkJoinTask is Serializable, but tasks only live inside one pool and are never serialized
+    private class TournamentTask extends RecursiveTask<AllGamesRecord[]> {
+        private final int from;
+        private final int to;
+
+        TournamentTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected AllGamesRecord[] compute() {
+            if (to - from <= Math.max(1, GAMES_PER_TASK / playerFactories.size())) {
+                return playPhrases(from, to);
+            }
+            int middle = (from + to) >>> 1;
+            TournamentTask left = new TournamentTask(from, middle);
+            TournamentTask right = new TournamentTask(middle, to);
+            left.fork();
+            AllGamesRecord[] rightRecords = right.compute();
+            AllGamesRecord[] leftRecords = left.join();
+            for (int playerIndex = 0; playerIndex < leftRecords.length; playerIndex++) {
+                leftRecords[playerIndex].addAll(rightRecords[playerIndex]);
+            }
+            return leftRecords;
+        }
+    }
+
+    /**
+     * Runs a parallel tournament of the built-in guessers and prints the results.
+     *
+     * @param args optional tournament seed, optionally a GameRecordLog file to append the results to
+     *             ("-" for none), optionally a file for metrics snapshots, which also
+     *             exposes the metrics over JMX while the tournament runs ("-" for none), and
+     *             optionally a GameResultCache spill file, so later runs replay the
+     *             deterministic players' games from it.
+     * @throws IOException if the results cannot be appended to the log.
+     * @throws JMException if the metrics cannot be registered.
+     */
+    public static void main(String[] args) throws IOException, JMException {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : System.nanoTime();
+        WheelOfFortuneAIGame game = new WheelOfFortuneAIGame();
+        game.setListener(new SilentGameListener());
+        PhrasePatternIndex index = game.patternIndex();
+        WordDictionary dictionary = WordDictionary.fromPhrases(game.getPhrases());
+        List<Supplier<WheelOfFortunePlayer>> factories = Arrays.asList(Random1Guesser::new, Random2Guesser::new,
+                Random3Guesser::new, () -> new FrequencyGuesser(index), () -> new EntropyGuesser(dictionary));
+
+        GameMetrics metrics = null;
+        if (args.length > 2 && !args[2].equals("-")) {
+            metrics = new GameMetrics();
+            metrics.registerMBeans();
+            metrics.startSnapshots(Paths.get(args[2]), 1000);
+            game.setMetrics(metrics);
+        }
+
+        GameResultCache cache = null;
+        if (args.length > 3) {
+            cache = new GameResultCache(1 << 16, Paths.get(args[3]), 1 << 20);
+            game.setResultCache(cache);
+        }
+
+        WheelOfFortuneTournament tournament = new WheelOfFortuneTournament(game, factories, seed);
+        AllGamesRecord record = tournament.run(Runtime.getRuntime().availableProcessors());
+        if (cache != null) {
+            cache.close();
+            System.out.println("Result cache: " + cache.hits() + " hits, " + cache.misses() + " misses");
+        }
+        if (metrics != null) {
+            metrics.close();
+            metrics.writeSnapshot(Paths.get(args[2]));
+        }
+        if (args.length > 1 && !args[1].equals("-")) {
+            try (GameRecordLog log = new GameRecordLog(Paths.get(args[1]))) {
+                log.appendAll("WheelOfFortune", record);
+            }
+        }
+
+        List<String> playerIds = new ArrayList<>();
+        for (Supplier<WheelOfFortunePlayer> factory : factories) {
+            playerIds.add(factory.get().playerId());
+        }
+        System.out.println("\nTournament seed: " + seed);
+        System.out.println("The Average Score of All Games: " + record.average());
+        System.out.println("High Scores by Player:");
+        for (String playerId : playerIds) {
+            System.out.println(playerId + ": " + record.highGameList(playerId, 3));
+        }
+    }
+}
@@ -7,11 +7,14 @@ import java.util.Scanner;
  * Users can guess letters to reveal a hidden phrase within a limited number of incorrect guesses.
  */
 public class WheelOfFortuneUserGame extends WheelOfFortune {
+    // The rules, shared with WheelOfFortuneSession, which plays the same game over the network
+    static final int MAX_INCORRECT_GUESSES = 5;
+
     private Scanner scanner = new Scanner(System.in);
     private String phrase;
     private StringBuilder hiddenPhrase;
     private List<Character> guessedLetters = new ArrayList<>();
-    private int maxIncorrectGuesses = 5;
+    private int maxIncorrectGuesses = MAX_INCORRECT_GUESSES;
     private int remainingGuesses;
     private boolean firstGame = true;
 
@@ -44,29 +47,41 @@ public class WheelOfFortuneUserGame extends WheelOfFortune {
      */
     @Override
     protected GameRecord play() {
-        System.out.println("Welcome to Wheel of Fortune!");
-        System.out.println("Try to guess the phrase: " + hiddenPhrase);
+        if (listener.isEnabled()) {
+            listener.message("Welcome to Wheel of Fortune!");
+            listener.message("Try to guess the phrase: " + hiddenPhrase);
+        }
 
         while (remainingGuesses > 0 && hiddenPhrase.toString().contains("*")) {
             char guess = getGuess(previousGuesses());
             guessedLetters.add(guess);
 
             if (processGuess(guess, phrase, hiddenPhrase)) {
-                System.out.println("Good guess! The phrase now: " + hiddenPhrase);
+                if (listener.isEnabled()) {
+                    listener.message("Good guess! The phrase now: " + hiddenPhrase);
+                }
             } else {
                 remainingGuesses--;
-                System.out.println("Incorrect guess! Remaining guesses: " + remainingGuesses);
+                if (listener.isEnabled()) {
+                    listener.message("Incorrect guess! Remaining guesses: " + remainingGuesses);
+                }
             }
         }
 
-        if (remainingGuesses <= 0) {
-            System.out.println("You lose! The phrase was: " + phrase);
-        } else {
-            System.out.println("Congratulations! You guessed the phrase: " + phrase);
+        if (listener.isEnabled()) {
+            if (remainingGuesses <= 0) {
+                listener.message("You lose! The phrase was: " + phrase);
+            } else {
+                listener.message("Congratulations! You guessed the phrase: " + phrase);
+            }
         }
 
-        int score = remainingGuesses * 10;
-        return new GameRecord(score, "User");
+        return new GameRecord(score(remainingGuesses), "User", guessedLetters.size());
+    }
+
+    // A game's score: 10 points for every incorrect guess the player had left
+    static int score(int remainingGuesses) {
+        return remainingGuesses * 10;
     }
 
     /**
@@ -96,10 +111,10 @@ public class WheelOfFortuneUserGame extends WheelOfFortune {
         } else {
             System.out.print("Play another game? (y/n): ");
             boolean playAgain = scanner.nextLine().trim().equalsIgnoreCase("y");
-            if (playAgain && !phrases.isEmpty()) {
+            if (playAgain && hasRemainingPhrases()) {
                 resetGame();
             }
-            return playAgain && !phrases.isEmpty();
+            return playAgain && hasRemainingPhrases();
         }
     }
 
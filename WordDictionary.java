@@ -0,0 +1,265 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Read-only dictionary of the words in a phrase corpus, grouped by length, for guessers
+ * that reason about each word on the board. For every length, position and letter it
+ * keeps a bitset of the words with that letter at that position, so narrowing a word's
+ * candidates after a guess is a few ANDs over long[] sets, one per revealed or ruled-out
+ * position. Words are runs of letters; words with letters outside 'a' to 'z', or longer
+ * than MAX_LENGTH, are left out, and a board word of that kind simply has no candidates.
+ *
+ * Building needs a pass over the corpus plus a sort, so a dictionary can be written to a
+ * binary file holding the words and the ready-made bitsets, which read() copies back in
+ * bulk. Built once and shared by every EntropyGuesser, including across threads.
+ */
+public class WordDictionary {
+    public static final int MAX_LENGTH = 64; // Positions of a letter in a word fit a long
+    private static final int MAGIC = 0x57444943; // "WDIC"
+    private static final int FORMAT = 1;
+
+    private final long source;
+    // Indexed by word length; words[length] holds the words back to back, length bytes each
+    private final int[] counts = new int[MAX_LENGTH + 1];
+    private final byte[][] words = new byte[MAX_LENGTH + 1][];
+    // bits[length][(position * 26 + letter) * longs(length) + k]
+    private final long[][] bits = new long[MAX_LENGTH + 1][];
+
+    private WordDictionary(long source) {
+        this.source = source;
+    }
+
+    /**
+     * Builds the dictionary of a phrase corpus.
+     *
+     * @param phrases the phrases to take the words from.
+     * @return the dictionary, with each distinct word once.
+     */
+    public static WordDictionary fromPhrases(List<String> phrases) {
+        List<TreeSet<String>> byLength = new ArrayList<>();
+        for (int length = 0; length <= MAX_LENGTH; length++) {
+            byLength.add(new TreeSet<>());
+        }
+        for (String phrase : phrases) {
+            int start = -1;
+            for (int i = 0; i <= phrase.length(); i++) {
+                boolean letter = i < phrase.length() && Character.isLetter(phrase.charAt(i));
+                if (letter && start < 0) {
+                    start = i;
+                } else if (!letter && start >= 0) {
+                    String word = phrase.substring(start, i);
+                    if (word.length() <= MAX_LENGTH && isLowercase(word)) {
+                        byLength.get(word.length()).add(word);
+                    }
+                    start = -1;
+                }
+            }
+        }
+
+        WordDictionary dictionary = new WordDictionary(PhraseCorpus.version(phrases));
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            TreeSet<String> set = byLength.get(length);
+            byte[] packed = new byte[set.size() * length];
+            int offset = 0;
+            for (String word : set) {
+                for (int i = 0; i < length; i++) {
+                    packed[offset++] = (byte) word.charAt(i);
+                }
+            }
+            dictionary.counts[length] = set.size();
+            dictionary.words[length] = packed;
+            dictionary.bits[length] = positionBits(packed, length, set.size());
+        }
+        return dictionary;
+    }
+
+    private static boolean isLowercase(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long[] positionBits(byte[] packed, int length, int count) {
+        int longs = (count + 63) >>> 6;
+        long[] bits = new long[length * 26 * longs];
+        for (int word = 0; word < count; word++) {
+            for (int position = 0; position < length; position++) {
+                int letter = packed[word * length + position] - 'a';
+                bits[(position * 26 + letter) * longs + (word >>> 6)] |= 1L << word;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Reads the dictionary file for a corpus, or builds the dictionary and writes the file
+     * if it is missing, unreadable or was built from different phrases. Files are keyed on
+     * PhraseCorpus.version(phrases), so a mapped corpus is not decoded just to check one.
+     *
+     * @param file the dictionary file.
+     * @param phrases the corpus the dictionary must match.
+     * @return the dictionary.
+     * @throws IOException if a rebuilt dictionary cannot be written.
+     */
+    public static WordDictionary load(Path file, List<String> phrases) throws IOException {
+        long expected = PhraseCorpus.version(phrases);
+        if (Files.exists(file)) {
+            try {
+                WordDictionary dictionary = read(file);
+                if (dictionary.source == expected) {
+                    return dictionary;
+                }
+            } catch (IOException | RuntimeException e) {
+                // Stale or damaged; rebuild below
+            }
+        }
+        WordDictionary dictionary = fromPhrases(phrases);
+        dictionary.write(file);
+        return dictionary;
+    }
+
+    /**
+     * Reads a dictionary file written by write().
+     *
+     * @param file the dictionary file.
+     * @return the dictionary.
+     * @throws IOException if the file cannot be read or is not a dictionary file.
+     */
+    public static WordDictionary read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT || buffer.getInt() != MAX_LENGTH) {
+                throw new IOException(file + " is not a word dictionary file");
+            }
+            buffer.getInt(); // Padding
+            WordDictionary dictionary = new WordDictionary(buffer.getLong());
+            for (int length = 1; length <= MAX_LENGTH; length++) {
+                int count = buffer.getInt();
+                dictionary.counts[length] = count;
+                dictionary.words[length] = new byte[count * length];
+                buffer.get(dictionary.words[length]);
+                buffer.position((buffer.position() + 7) & ~7);
+                dictionary.bits[length] = new long[length * 26 * ((count + 63) >>> 6)];
+                buffer.asLongBuffer().get(dictionary.bits[length]);
+                buffer.position(buffer.position() + dictionary.bits[length].length * 8);
+            }
+            return dictionary;
+        }
+    }
+
+    /**
+     * Writes the dictionary to a file, replacing it atomically.
+     *
+     * @param file the dictionary file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(Path file) throws IOException {
+        long size = 24;
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            size = ((size + 4 + words[length].length + 7) & ~7) + bits[length].length * 8L;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(FORMAT).putInt(MAX_LENGTH).putInt(0).putLong(source);
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            buffer.putInt(counts[length]);
+            buffer.put(words[length]);
+            buffer.position((buffer.position() + 7) & ~7);
+            buffer.asLongBuffer().put(bits[length]);
+            buffer.position(buffer.position() + bits[length].length * 8);
+        }
+        buffer.flip();
+
+        AtomicFiles.write(file, buffer);
+    }
+
+    // Number of words of a length; 0 for lengths outside 1 to MAX_LENGTH
+    public int wordCount(int length) {
+        return length >= 1 && length <= MAX_LENGTH ? counts[length] : 0;
+    }
+
+    // Size in longs of a candidate set over the words of a length
+    public int longs(int length) {
+        return (wordCount(length) + 63) >>> 6;
+    }
+
+    // The words of a length, back to back, length bytes each; shared and must not be modified
+    public byte[] words(int length) {
+        return words[length];
+    }
+
+    /**
+     * Creates a candidate set holding every word of a length.
+     *
+     * @param length the word length.
+     * @return a new bitset, one bit per word.
+     */
+    public long[] allWords(int length) {
+        int count = wordCount(length);
+        long[] candidates = new long[longs(length)];
+        for (int k = 0; k < candidates.length; k++) {
+            int remaining = count - k * 64;
+            candidates[k] = remaining >= 64 ? -1L : (1L << remaining) - 1;
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the letters found in at least one word of a candidate set.
+     *
+     * @param candidates the candidate set of words of the given length.
+     * @param length the word length.
+     * @return a 26-bit letter mask, as built by WheelOfFortune.letterMask.
+     */
+    public int letterMask(long[] candidates, int length) {
+        long[] lengthBits = bits[length];
+        int mask = 0;
+        for (int position = 0; position < length; position++) {
+            for (int letter = 0; letter < 26; letter++) {
+                int from = (position * 26 + letter) * candidates.length;
+                for (int k = 0; k < candidates.length && (mask & (1 << letter)) == 0; k++) {
+                    if ((candidates[k] & lengthBits[from + k]) != 0) {
+                        mask |= 1 << letter;
+                    }
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Keeps only the candidates that have, or do not have, a letter at a position.
+     *
+     * @param candidates the candidate set of words of the given length, updated in place.
+     * @param length the word length.
+     * @param position the position in the word.
+     * @param letter the letter, 'a' to 'z'.
+     * @param present whether the letter is at that position.
+     */
+    public void restrict(long[] candidates, int length, int position, char letter, boolean present) {
+        long[] lengthBits = bits[length];
+        int from = (position * 26 + letter - 'a') * candidates.length;
+        if (present) {
+            for (int k = 0; k < candidates.length; k++) {
+                candidates[k] &= lengthBits[from + k];
+            }
+        } else {
+            for (int k = 0; k < candidates.length; k++) {
+                candidates[k] &= ~lengthBits[from + k];
+            }
+        }
+    }
+}